@@ -165,6 +165,10 @@ export function UploadZone() {
 
       } catch (error) {
         console.error("Upload error:", error);
+        // The upload service refuses banned accounts with a 400 that carries securityStatus.
+        if (axios.isAxiosError(error) && error.response?.data?.securityStatus === 'banned') {
+          setIsBanned(true);
+        }
         setUploadFiles(prev =>
           prev.map(f =>
             f.id === uploadFile.id
@@ -1,72 +1,166 @@
 package com.auth_service.auth_service.Aspect;
 
-import lombok.extern.slf4j.Slf4j;
-import org.aspectj.lang.JoinPoint;
+import com.auth_service.auth_service.Config.MethodLoggingProperties;
+import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.annotation.*;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StopWatch;
 
-import java.util.Arrays;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
-@Slf4j
+/**
+ * Logs controller and service calls through the called class's own logger, so
+ * {@code logging.level.<package>} decides what is logged. Successful calls are
+ * sampled at DEBUG, slow calls are always logged at WARN and failures at WARN
+ * (with the stack trace only when DEBUG is on; GlobalExceptionHandler logs the
+ * unexpected ones in full). Arguments are summarised rather than stringified:
+ * payloads, streams and collections print their size, strings are capped, and
+ * sensitive parameters and bearer tokens are masked.
+ */
 @Aspect
 @Component
+@RequiredArgsConstructor
 public class LoggingAspect {
 
+    private static final String REDACTED = "***";
+
+    private final MethodLoggingProperties properties;
+    private final Map<Method, MethodLog> methods = new ConcurrentHashMap<>();
+
     @Pointcut("execution(public * com..Controllers..*(..))")
     public void controllerMethods() {}
 
     @Pointcut("execution(public * com..Service..*(..))")
     public void serviceMethods() {}
 
-    @Pointcut("execution(public * com..Repository..*(..))")
-    public void repositoryMethods() {}
+    @Around("controllerMethods() || serviceMethods()")
+    public Object logCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!properties.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        MethodLog methodLog = methods.get(signature.getMethod());
+        if (methodLog == null) {
+            methodLog = methods.computeIfAbsent(signature.getMethod(), method -> register(signature));
+        }
+        Logger logger = methodLog.logger();
 
-    @Before("controllerMethods() || serviceMethods()")
-    public void logBefore(JoinPoint joinPoint) {
-        String className = joinPoint.getSignature().getDeclaringTypeName();
-        String methodName = joinPoint.getSignature().getName();
-        Object[] args = joinPoint.getArgs();
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            if (logger.isWarnEnabled()) {
+                long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                String args = describeArgs(methodLog, joinPoint.getArgs());
+                if (logger.isDebugEnabled()) {
+                    logger.warn("✗ {}({}) failed after {} ms", methodLog.name(), args, millis, e);
+                } else {
+                    logger.warn("✗ {}({}) failed after {} ms: {}", methodLog.name(), args, millis, e.toString());
+                }
+            }
+            throw e;
+        }
 
-        log.info("→ Entering: {}.{}() with arguments: {}",
-                className, methodName, Arrays.toString(args));
+        long elapsed = System.nanoTime() - start;
+        if (elapsed >= properties.getSlowThreshold().toNanos()) {
+            logger.warn("⏱ Slow call: {}({}) took {} ms",
+                    methodLog.name(), describeArgs(methodLog, joinPoint.getArgs()), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        } else if (logger.isDebugEnabled() && sampled()) {
+            logger.debug("← {}({}) took {} ms, returned {}",
+                    methodLog.name(), describeArgs(methodLog, joinPoint.getArgs()),
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), describe(result));
+        }
+        return result;
     }
 
-    @AfterReturning(pointcut = "controllerMethods() || serviceMethods()", returning = "result")
-    public void logAfterReturning(JoinPoint joinPoint, Object result) {
-        String className = joinPoint.getSignature().getDeclaringTypeName();
-        String methodName = joinPoint.getSignature().getName();
-
-        log.info("← Exiting: {}.{}() with result: {}",
-                className, methodName, result);
+    private MethodLog register(MethodSignature signature) {
+        String[] names = signature.getParameterNames();
+        boolean[] redacted = new boolean[signature.getParameterTypes().length];
+        for (int i = 0; i < redacted.length; i++) {
+            redacted[i] = names != null && isSensitive(names[i]);
+        }
+        return new MethodLog(
+                LoggerFactory.getLogger(signature.getDeclaringType()),
+                signature.getDeclaringType().getSimpleName() + "." + signature.getName(),
+                redacted);
     }
 
-    @AfterThrowing(pointcut = "controllerMethods() || serviceMethods()", throwing = "exception")
-    public void logAfterThrowing(JoinPoint joinPoint, Throwable exception) {
-        String className = joinPoint.getSignature().getDeclaringTypeName();
-        String methodName = joinPoint.getSignature().getName();
+    boolean isSensitive(String parameterName) {
+        String name = parameterName.toLowerCase(Locale.ROOT);
+        return properties.getRedactedNames().stream()
+                .anyMatch(fragment -> name.contains(fragment.toLowerCase(Locale.ROOT)));
+    }
 
-        log.error("✗ Exception in: {}.{}() - Message: {}",
-                className, methodName, exception.getMessage(), exception);
+    private boolean sampled() {
+        double rate = properties.getSampleRate();
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
     }
 
-    @Around("controllerMethods() || serviceMethods()")
-    public Object logExecutionTime(ProceedingJoinPoint joinPoint) throws Throwable {
-        String className = joinPoint.getSignature().getDeclaringTypeName();
-        String methodName = joinPoint.getSignature().getName();
+    String describeArgs(MethodLog methodLog, Object[] args) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            boolean redacted = i < methodLog.redacted().length && methodLog.redacted()[i];
+            out.append(redacted && args[i] != null ? REDACTED : describe(args[i]));
+        }
+        return out.toString();
+    }
 
-        StopWatch stopWatch = new StopWatch();
-        stopWatch.start();
+    // Never calls toString() on arbitrary objects: DTOs and entities can carry credentials or whole file lists.
+    String describe(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof CharSequence text) {
+            return describeText(text);
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character
+                || value instanceof Enum<?> || value instanceof UUID) {
+            return value.toString();
+        }
+        if (value instanceof Optional<?> optional) {
+            return optional.map(inner -> "Optional[" + describe(inner) + "]").orElse("Optional.empty");
+        }
+        if (value.getClass().isArray()) {
+            return value.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(value) + "]";
+        }
+        if (value instanceof Collection<?> collection) {
+            return value.getClass().getSimpleName() + "(size=" + collection.size() + ")";
+        }
+        if (value instanceof Map<?, ?> map) {
+            return value.getClass().getSimpleName() + "(size=" + map.size() + ")";
+        }
+        return value.getClass().getSimpleName();
+    }
 
-        Object result = null;
-        try {
-            result = joinPoint.proceed();
-            return result;
-        } finally {
-            stopWatch.stop();
-            log.info("⏱ Execution time: {}.{}() took {} ms",
-                    className, methodName, stopWatch.getTotalTimeMillis());
+    private String describeText(CharSequence text) {
+        String value = text.toString();
+        if (value.startsWith("Bearer ") || value.startsWith("eyJ")) {
+            return REDACTED;
+        }
+        int max = properties.getMaxArgLength();
+        if (value.length() > max) {
+            return "\"" + value.substring(0, max) + "…\"(" + value.length() + " chars)";
         }
+        return "\"" + value + "\"";
     }
-}
\ No newline at end of file
+
+    record MethodLog(Logger logger, String name, boolean[] redacted) {}
+}
@@ -0,0 +1,21 @@
+package com.auth_service.auth_service.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    // Plan upgrades evict entries explicitly; the TTL bounds staleness for any other change.
+    @Bean
+    public RedisCacheManagerBuilderCustomizer userCacheCustomizer(
+            @Value("${app.auth.user-cache-ttl:30s}") Duration userCacheTtl) {
+        return builder -> builder.withCacheConfiguration("user_id",
+                RedisCacheConfiguration.defaultCacheConfig().entryTtl(userCacheTtl));
+    }
+}
@@ -2,10 +2,14 @@
 package com.auth_service.auth_service.Controllers;
 
 import com.auth_service.auth_service.DTO.StoragePlanResponse;
+import com.auth_service.auth_service.DTO.UserBatchRequest;
+import com.auth_service.auth_service.DTO.UserBatchResponse;
 import com.auth_service.auth_service.Entity.type.Plan;
+import com.auth_service.auth_service.Entity.type.StorageUsage;
 import com.auth_service.auth_service.Entity.type.User;
 import com.auth_service.auth_service.Exception.ResourceNotFoundException;
-import com.auth_service.auth_service.Service.S3Service;
+import com.auth_service.auth_service.Security.AuthenticatedUser;
+import com.auth_service.auth_service.Service.StorageUsageService;
 import com.auth_service.auth_service.Service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -21,19 +25,20 @@ import java.util.Map;
 public class AuthController {
 
     private final UserService userService;
-    private final S3Service s3Service;
+    private final StorageUsageService storageUsageService;
 
     @GetMapping("/user")
-    public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal User user) {
+    public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal AuthenticatedUser user) {
         if (user == null) {
             return ResponseEntity.status(401).body("Unauthorized");
         }
 
         Map<String, Object> userInfo = new HashMap<>();
-        userInfo.put("id", user.getId());
-        userInfo.put("email", user.getEmail());
-        userInfo.put("name", user.getName());
-        userInfo.put("picture", user.getPicture());
+        userInfo.put("id", user.id());
+        userInfo.put("email", user.email());
+        userInfo.put("name", user.name());
+        // The picture is not in the token, so it comes from the cached user row.
+        userInfo.put("picture", userService.findCachedById(user.id()).map(User::getPicture).orElse(null));
 
         return ResponseEntity.ok(userInfo);
     }
@@ -48,13 +53,20 @@ public class AuthController {
     }
 
     @GetMapping("/getStoragePlanAndConsumption")
-    public ResponseEntity<StoragePlanResponse> getUserStoragePlanAndConsumption(@AuthenticationPrincipal User user) {
-        User foundUser = userService.findById(user.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", user.getId()));
+    public ResponseEntity<StoragePlanResponse> getUserStoragePlanAndConsumption(@AuthenticationPrincipal AuthenticatedUser user) {
+        // The token's plan may predate an upgrade; the cache is evicted when one lands.
+        User foundUser = userService.findCachedById(user.id())
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", user.id()));
 
-        Long storageConsumed = s3Service.getUserFolderSize(String.valueOf(user.getId()));
-        StoragePlanResponse responseDTO = new StoragePlanResponse(foundUser.getPlan(), storageConsumed);
+        StorageUsage usage = storageUsageService.getUsage(user.id());
+        StoragePlanResponse responseDTO = new StoragePlanResponse(foundUser.getPlan(), usage.getBytesUsed(),
+                usage.getUpdatedAt(), usage.getLastReconciledAt());
 
         return ResponseEntity.ok(responseDTO);
     }
+
+    @PostMapping("/users:batchGet")
+    public ResponseEntity<UserBatchResponse> batchGetUsers(@RequestBody UserBatchRequest request) {
+        return ResponseEntity.ok(userService.findSummaries(request.getIds(), request.getEmails()));
+    }
 }
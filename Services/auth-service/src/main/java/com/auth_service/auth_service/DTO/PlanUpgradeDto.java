@@ -11,4 +11,6 @@ import lombok.NoArgsConstructor;
 public class PlanUpgradeDto {
     private Long userId;
     private Plan plan;
+    /** Payment session id; null for messages from older producers, which are not deduplicated. */
+    private String eventId;
 }
@@ -6,6 +6,8 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+
 @Getter
 @Setter
 @RequiredArgsConstructor
@@ -13,4 +15,8 @@ import lombok.Setter;
 public class StoragePlanResponse {
     private Plan plan;
     private Long StorageConsumed;
+    /** When the last upload or purge event was applied. */
+    private LocalDateTime usageUpdatedAt;
+    /** When usage was last recomputed from S3; null if it never has been. */
+    private LocalDateTime lastReconciledAt;
 }
@@ -0,0 +1,15 @@
+package com.auth_service.auth_service.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StorageUsageEvent {
+    private Long userId;
+    /** Positive for uploads, negative for purged files. */
+    private long deltaBytes;
+    private String eventId;
+}
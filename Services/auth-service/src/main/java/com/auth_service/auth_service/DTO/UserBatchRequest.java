@@ -0,0 +1,16 @@
+package com.auth_service.auth_service.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserBatchRequest {
+    private List<Long> ids = new ArrayList<>();
+    private List<String> emails = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package com.auth_service.auth_service.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserBatchResponse {
+    private List<UserSummary> users;
+    private List<Long> missingIds;
+    private List<String> missingEmails;
+}
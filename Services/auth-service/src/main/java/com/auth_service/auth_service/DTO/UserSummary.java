@@ -0,0 +1,14 @@
+package com.auth_service.auth_service.DTO;
+
+import com.auth_service.auth_service.Entity.type.User;
+
+/**
+ * The public part of a user returned by the batch lookup; leaves out the
+ * provider ids, timestamps and plan that callers fanning out to many users do not need.
+ */
+public record UserSummary(Long id, String email, String name, String picture) {
+
+    public static UserSummary from(User user) {
+        return new UserSummary(user.getId(), user.getEmail(), user.getName(), user.getPicture());
+    }
+}
@@ -0,0 +1,29 @@
+package com.auth_service.auth_service.Entity.type;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A Kafka event that has already been applied, keyed by the id its producer
+ * assigned (the payment session id for plan upgrades), so a replayed webhook or
+ * a redelivered record is skipped. Rows are dropped after
+ * {@code app.processed-events.retention}, long past any redelivery or webhook retry.
+ */
+@Data
+@Entity
+@Table(name = "processed_events", indexes = @Index(name = "idx_processed_events_processed_at", columnList = "processed_at"))
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedEvent {
+
+    @Id
+    @Column(name = "event_id", nullable = false)
+    private String eventId;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,33 @@
+package com.auth_service.auth_service.Entity.type;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bytes a user currently stores, kept current by upload and purge events and
+ * periodically reset from an S3 listing to correct any drift.
+ */
+@Data
+@Entity
+@Table(name = "storage_usage")
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageUsage {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "bytes_used", nullable = false)
+    private long bytesUsed;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "last_reconciled_at")
+    private LocalDateTime lastReconciledAt;
+}
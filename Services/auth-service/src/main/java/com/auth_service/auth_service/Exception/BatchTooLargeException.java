@@ -0,0 +1,7 @@
+package com.auth_service.auth_service.Exception;
+
+public class BatchTooLargeException extends RuntimeException {
+    public BatchTooLargeException(int maxSize) {
+        super("At most " + maxSize + " ids and emails can be looked up at once");
+    }
+}
@@ -0,0 +1,18 @@
+package com.auth_service.auth_service.Repository;
+
+import com.auth_service.auth_service.Entity.type.ProcessedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, String> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ProcessedEvent e WHERE e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
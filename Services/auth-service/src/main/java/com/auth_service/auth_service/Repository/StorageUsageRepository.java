@@ -0,0 +1,46 @@
+package com.auth_service.auth_service.Repository;
+
+import com.auth_service.auth_service.Entity.type.StorageUsage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StorageUsageRepository extends JpaRepository<StorageUsage, Long> {
+
+    /**
+     * Applies a delta in place. A user with no row yet gets one holding just the delta and
+     * no reconcile time, so the next read or reconcile pass lists S3 for the real total.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO storage_usage (user_id, bytes_used, updated_at, last_reconciled_at) " +
+            "VALUES (:userId, GREATEST(:delta, 0), :now, NULL) " +
+            "ON CONFLICT (user_id) DO UPDATE SET bytes_used = GREATEST(storage_usage.bytes_used + :delta, 0), " +
+            "updated_at = :now", nativeQuery = true)
+    int applyDelta(@Param("userId") Long userId, @Param("delta") long delta, @Param("now") LocalDateTime now);
+
+    /**
+     * Resets usage to an S3 listing. {@code snapshot} is the value read before listing; whatever
+     * deltas were applied since then are kept on top of the measurement instead of overwritten.
+     */
+    @Transactional
+    @Query(value = "INSERT INTO storage_usage (user_id, bytes_used, updated_at, last_reconciled_at) " +
+            "VALUES (:userId, :measured, :now, :now) " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "bytes_used = GREATEST(:measured + storage_usage.bytes_used - :snapshot, 0), " +
+            "updated_at = :now, last_reconciled_at = :now " +
+            "RETURNING *", nativeQuery = true)
+    StorageUsage reconcile(@Param("userId") Long userId,
+                           @Param("measured") long measured,
+                           @Param("snapshot") long snapshot,
+                           @Param("now") LocalDateTime now);
+
+    @Query("SELECT s.userId FROM StorageUsage s WHERE s.lastReconciledAt IS NULL OR s.lastReconciledAt < :before " +
+            "ORDER BY s.lastReconciledAt ASC NULLS FIRST")
+    List<Long> findIdsReconciledBefore(@Param("before") LocalDateTime before, Pageable pageable);
+}
@@ -1,12 +1,23 @@
 package com.auth_service.auth_service.Repository;
 
+import com.auth_service.auth_service.Entity.type.Plan;
 import com.auth_service.auth_service.Entity.type.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+    List<User> findAllByEmailIn(Collection<String> emails);
     Optional<User> findByGoogleId(String googleId);
     boolean existsByEmail(String email);
+
+    @Modifying
+    @Query("UPDATE User u SET u.plan = :plan WHERE u.id IN :ids")
+    int updatePlanForUsers(@Param("plan") Plan plan, @Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,13 @@
+package com.auth_service.auth_service.Security;
+
+import com.auth_service.auth_service.Entity.type.Plan;
+
+import java.io.Serializable;
+
+/**
+ * Request principal built from the signed token alone. Fields that can change
+ * after the token was issued (plan, picture) should be read through
+ * {@code UserService.findCachedById} when they must be current.
+ */
+public record AuthenticatedUser(Long id, String email, String name, Plan plan) implements Serializable {
+}
@@ -9,6 +9,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -26,32 +27,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserService userService;
 
+    // Off by default: the signed claims are trusted as-is. When on, the account must
+    // still exist and the plan is taken from the (cached) user row instead of the token.
+    @Value("${app.auth.load-user-on-request:false}")
+    private boolean loadUserOnRequest;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String email = null;
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            try {
-                email = jwtUtil.getEmailFromToken(token);
-            } catch (Exception e) {
-                logger.error("Cannot get email from token: " + e.getMessage());
-            }
-        }
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(token) && !jwtUtil.isTokenExpired(token)) {
-                Long userId = jwtUtil.getUserIdFromToken(token);
-                User user = userService.findById(userId).orElse(null);
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // One parse verifies the signature and expiry and yields every claim needed below.
+            TokenClaims claims = jwtUtil.parseToken(authHeader.substring(7)).orElse(null);
+            if (claims == null) {
+                logger.debug("Ignoring invalid or expired bearer token");
+            } else if (claims.email() != null && claims.userId() != null) {
+                AuthenticatedUser principal = toPrincipal(claims);
 
-                if (user != null) {
+                if (principal != null) {
                     UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(user, null, new ArrayList<>());
+                            new UsernamePasswordAuthenticationToken(principal, null, new ArrayList<>());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
@@ -60,4 +59,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private AuthenticatedUser toPrincipal(TokenClaims claims) {
+        if (!loadUserOnRequest) {
+            return new AuthenticatedUser(claims.userId(), claims.email(), claims.name(), claims.plan());
+        }
+        User user = userService.findCachedById(claims.userId()).orElse(null);
+        return user == null
+                ? null
+                : new AuthenticatedUser(user.getId(), user.getEmail(), user.getName(), user.getPlan());
+    }
+}
@@ -1,82 +1,76 @@
 package com.auth_service.auth_service.Security;
 
+import com.auth_service.auth_service.Entity.type.Plan;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import java.security.Key;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @Component
 public class JwtUtil {
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
+    private final long jwtExpirationMs;
 
-    @Value("${app.jwt.expiration}")
-    private long jwtExpirationMs;
+    // Both are immutable and thread-safe, so they are built once instead of per call.
+    private final SecretKey signingKey;
+    private final JwtParser parser;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    public JwtUtil(@Value("${app.jwt.secret}") String jwtSecret,
+                   @Value("${app.jwt.expiration}") long jwtExpirationMs) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
     public String generateToken(String email, Long userId, String name) {
+        return generateToken(email, userId, name, null);
+    }
+
+    public String generateToken(String email, Long userId, String name, Plan plan) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("name", name);
+        if (plan != null) {
+            claims.put("plan", plan.name());
+        }
 
         return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(email)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .claims(claims)
+                .subject(email)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
-    public String getEmailFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
-    }
-
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return Long.valueOf(claims.get("userId").toString());
-    }
-
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the signature and expiry once and returns every claim the
+     * service uses, or empty if the token is malformed, forged or expired.
+     */
+    public Optional<TokenClaims> parseToken(String token) {
         try {
-            Jwts.parser()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Object userId = claims.get("userId");
+            String plan = claims.get("plan", String.class);
+            return Optional.of(new TokenClaims(
+                    claims.getSubject(),
+                    userId == null ? null : Long.valueOf(userId.toString()),
+                    claims.get("name", String.class),
+                    plan == null ? null : Plan.valueOf(plan),
+                    claims.getExpiration() == null ? null : claims.getExpiration().toInstant()));
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
         }
     }
 
-    public boolean isTokenExpired(String token) {
-        try {
-            Date expiration = Jwts.parser()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody()
-                    .getExpiration();
-            return expiration.before(new Date());
-        } catch (JwtException | IllegalArgumentException e) {
-            return true;
-        }
+    public boolean validateToken(String token) {
+        return parseToken(token).isPresent();
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.auth_service.auth_service.Security;
 
 import com.auth_service.auth_service.Entity.type.User;
+import com.auth_service.auth_service.Service.PlanCacheService;
 import com.auth_service.auth_service.Service.UserService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,6 +24,9 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private PlanCacheService planCacheService;
+
     @Value("${app.frontend.url}")
     private String frontendUrl;
 
@@ -33,8 +37,9 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
 
         OAuth2User oAuth2User = (OAuth2User) authentication.getPrincipal();
         User user = userService.processOAuth2User(oAuth2User);
+        planCacheService.publish(user.getId(), user.getPlan());
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getName());
+        String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getName(), user.getPlan());
 
         String targetUrl = UriComponentsBuilder.fromUriString(frontendUrl)
                 .queryParam("token", token)
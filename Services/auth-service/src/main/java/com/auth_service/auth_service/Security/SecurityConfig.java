@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -25,6 +26,9 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private ServiceCallerAuthorization serviceCallerAuthorization;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -34,6 +38,9 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers("/api/genai/process").permitAll() // Or be more specific for your endpoint
                         .requestMatchers("/", "/auth/**", "/oauth2/**", "/h2-console/**").permitAll()
+                        // Returns other users' details, so only backend services may call it.
+                        .requestMatchers("/api/auth/users:batchGet").access((authentication, context) ->
+                                new AuthorizationDecision(serviceCallerAuthorization.isServiceCaller(context.getRequest())))
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers(                "/v3/api-docs/**",
                                 "/swagger-ui/**",
@@ -0,0 +1,34 @@
+package com.auth_service.auth_service.Security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Recognises calls from other backend services by the shared token in
+ * {@code X-Service-Token}. Endpoints that expose other users' data accept only
+ * these callers; an end-user JWT is not enough. With no token configured every
+ * such call is refused.
+ */
+@Component
+public class ServiceCallerAuthorization {
+
+    public static final String HEADER = "X-Service-Token";
+
+    private final byte[] serviceToken;
+
+    public ServiceCallerAuthorization(@Value("${app.auth.service-token:}") String serviceToken) {
+        this.serviceToken = serviceToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public boolean isServiceCaller(HttpServletRequest request) {
+        String presented = request.getHeader(HEADER);
+        if (serviceToken.length == 0 || presented == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(serviceToken, presented.getBytes(StandardCharsets.UTF_8));
+    }
+}
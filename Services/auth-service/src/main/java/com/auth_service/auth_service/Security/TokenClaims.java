@@ -0,0 +1,12 @@
+package com.auth_service.auth_service.Security;
+
+import com.auth_service.auth_service.Entity.type.Plan;
+
+import java.time.Instant;
+
+/**
+ * Everything the service reads from a verified token, pulled out in one parse.
+ * {@code plan} is null for tokens issued before the claim was added.
+ */
+public record TokenClaims(String email, Long userId, String name, Plan plan, Instant expiresAt) {
+}
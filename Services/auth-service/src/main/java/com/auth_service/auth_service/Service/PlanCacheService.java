@@ -0,0 +1,67 @@
+package com.auth_service.auth_service.Service;
+
+import com.auth_service.auth_service.Entity.type.Plan;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Publishes each user's current plan to Redis under {@code user:plan:<id>} so
+ * other services can read it without calling this one. Written at login and on
+ * every upgrade; the TTL outlives the token so a valid token always has an entry
+ * unless Redis lost it.
+ */
+@Slf4j
+@Service
+public class PlanCacheService {
+
+    private static final String PLAN_KEY_PREFIX = "user:plan:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    public PlanCacheService(StringRedisTemplate redisTemplate,
+                            @Value("${app.plan-cache.ttl:7d}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+    }
+
+    public void publish(Long userId, Plan plan) {
+        if (userId == null || plan == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(PLAN_KEY_PREFIX + userId, plan.name(), ttl);
+        } catch (Exception e) {
+            // Readers fall back to the token claim and then to /getStoragePlan.
+            log.warn("Failed to publish plan for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /** Publishes a batch of plans in one pipelined round trip. */
+    public void publishAll(Map<Long, Plan> plans) {
+        if (plans.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                plans.forEach((userId, plan) -> connection.stringCommands().set(
+                        (PLAN_KEY_PREFIX + userId).getBytes(StandardCharsets.UTF_8),
+                        plan.name().getBytes(StandardCharsets.UTF_8),
+                        Expiration.from(ttl),
+                        RedisStringCommands.SetOption.upsert()));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Failed to publish plans for {} users: {}", plans.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.auth_service.auth_service.Service;
+
+import com.auth_service.auth_service.Repository.ProcessedEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Drops {@code processed_events} rows once no redelivery or webhook retry can
+ * still carry their id. Plan upgrades and storage usage deltas each add one row
+ * per event, so without this the table only grows. Running on every replica is
+ * harmless: the delete is idempotent.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProcessedEventCleanupService {
+
+    private final ProcessedEventRepository processedEventRepository;
+
+    @Value("${app.processed-events.retention:30d}")
+    private Duration retention;
+
+    @Scheduled(fixedDelayString = "${app.processed-events.cleanup-interval:PT1H}", initialDelayString = "PT5M")
+    public void deleteExpired() {
+        int deleted = processedEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Deleted {} processed events older than {}", deleted, retention);
+        }
+    }
+}
@@ -34,6 +34,11 @@ public class S3Service {
         log.info("S3Service initialized with bucket: {} in region: {}", bucketName, region);
     }
 
+    /**
+     * Lists every object under the user's prefix. Cost grows with the number of
+     * objects, so this is only used to reconcile the stored usage projection;
+     * failures propagate so a failed listing is never recorded as zero usage.
+     */
     public long getUserFolderSize(String userId) {
         long totalSize = 0;
         String prefix = userId + "/";
@@ -43,15 +48,10 @@ public class S3Service {
                 .prefix(prefix)
                 .build();
 
-        try {
-            for (S3Object s3Object : s3Client.listObjectsV2Paginator(listReq).contents()) {
-                if (s3Object.key().startsWith(prefix)) {
-                    totalSize += s3Object.size();
-                }
+        for (S3Object s3Object : s3Client.listObjectsV2Paginator(listReq).contents()) {
+            if (s3Object.key().startsWith(prefix)) {
+                totalSize += s3Object.size();
             }
-        } catch (Exception e) {
-            log.error("Error calculating folder size for user {}: {}", userId, e.getMessage());
-            return 0;
         }
 
         log.info("User {} currently uses {} bytes of storage.", userId, totalSize);
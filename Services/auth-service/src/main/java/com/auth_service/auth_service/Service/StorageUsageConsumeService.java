@@ -0,0 +1,77 @@
+package com.auth_service.auth_service.Service;
+
+import com.auth_service.auth_service.DTO.StorageUsageEvent;
+import com.auth_service.auth_service.Entity.type.ProcessedEvent;
+import com.auth_service.auth_service.Repository.ProcessedEventRepository;
+import com.auth_service.auth_service.Repository.StorageUsageRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies upload and purge deltas to the storage usage projection. Deltas are
+ * summed per user so a poll costs one UPDATE per user; events already in
+ * {@code processed_events} are skipped. A user without a row gets one holding
+ * the delta, which the next read or reconcile pass replaces with an S3 listing.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StorageUsageConsumeService {
+
+    private final StorageUsageRepository storageUsageRepository;
+    private final ProcessedEventRepository processedEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(topics = "storage-usage-events", batch = "true")
+    @Transactional
+    public void listen(List<String> messages) {
+        List<StorageUsageEvent> events = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            try {
+                events.add(objectMapper.readValue(messages.get(i), StorageUsageEvent.class));
+            } catch (Exception e) {
+                throw new BatchListenerFailedException("Unreadable storage usage event", e, i);
+            }
+        }
+
+        Set<String> eventIds = events.stream()
+                .map(StorageUsageEvent::getEventId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> seen = new HashSet<>();
+        processedEventRepository.findAllById(eventIds).forEach(event -> seen.add(event.getEventId()));
+
+        Map<Long, Long> deltas = new LinkedHashMap<>();
+        List<ProcessedEvent> newEvents = new ArrayList<>();
+        for (StorageUsageEvent event : events) {
+            if (event.getUserId() == null || (event.getEventId() != null && !seen.add(event.getEventId()))) {
+                continue;
+            }
+            deltas.merge(event.getUserId(), event.getDeltaBytes(), Long::sum);
+            if (event.getEventId() != null) {
+                newEvents.add(new ProcessedEvent(event.getEventId(), LocalDateTime.now()));
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((userId, delta) -> storageUsageRepository.applyDelta(userId, delta, now));
+        processedEventRepository.saveAll(newEvents);
+
+        log.info("Applied storage usage deltas for {} users from {} events", deltas.size(), messages.size());
+    }
+}
@@ -0,0 +1,102 @@
+package com.auth_service.auth_service.Service;
+
+import com.auth_service.auth_service.Entity.type.StorageUsage;
+import com.auth_service.auth_service.Repository.StorageUsageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Serves storage usage from the {@code storage_usage} projection instead of
+ * listing S3 on every dashboard load. A user's row is created from one S3
+ * listing on first read, then kept current by {@link StorageUsageConsumeService}
+ * and re-listed in the background once it is older than the reconcile window.
+ * Only one replica reconciles at a time (Redis lock).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StorageUsageService {
+
+    private static final DefaultRedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StorageUsageRepository storageUsageRepository;
+    private final S3Service s3Service;
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${app.storage-usage.reconcile-after:24h}")
+    private Duration reconcileAfter;
+
+    @Value("${app.storage-usage.reconcile-batch-size:100}")
+    private int reconcileBatchSize;
+
+    @Value("${app.storage-usage.reconcile-lock-key:storage-usage:reconcile-lock}")
+    private String reconcileLockKey;
+
+    @Value("${app.storage-usage.reconcile-lock-ttl:10m}")
+    private Duration reconcileLockTtl;
+
+    public StorageUsage getUsage(Long userId) {
+        Optional<StorageUsage> current = storageUsageRepository.findById(userId);
+        // A row created by a usage event before the first read holds only that delta.
+        if (current.isPresent() && current.get().getLastReconciledAt() != null) {
+            return current.get();
+        }
+        return reconcile(userId, current);
+    }
+
+    /**
+     * Resets the user's usage from an S3 listing. If the listing fails the stored
+     * row is left untouched, and a user without one is reported as never reconciled.
+     */
+    public StorageUsage reconcile(Long userId) {
+        return reconcile(userId, storageUsageRepository.findById(userId));
+    }
+
+    private StorageUsage reconcile(Long userId, Optional<StorageUsage> current) {
+        long snapshot = current.map(StorageUsage::getBytesUsed).orElse(0L);
+        long bytesUsed;
+        try {
+            bytesUsed = s3Service.getUserFolderSize(String.valueOf(userId));
+        } catch (Exception e) {
+            log.error("Error reconciling storage usage for user {}: {}", userId, e.getMessage());
+            return current.orElseGet(() -> new StorageUsage(userId, 0, null, null));
+        }
+        return storageUsageRepository.reconcile(userId, bytesUsed, snapshot, LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${app.storage-usage.reconcile-interval-ms:60000}")
+    public void reconcileStale() {
+        String lockToken = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(reconcileLockKey, lockToken, reconcileLockTtl);
+        if (!Boolean.TRUE.equals(acquired)) {
+            log.debug("Storage usage reconcile skipped, another replica holds the lock");
+            return;
+        }
+
+        try {
+            List<Long> userIds = storageUsageRepository.findIdsReconciledBefore(
+                    LocalDateTime.now().minus(reconcileAfter), PageRequest.of(0, reconcileBatchSize));
+            if (userIds.isEmpty()) {
+                return;
+            }
+            userIds.forEach(this::reconcile);
+            log.info("Reconciled storage usage for {} users", userIds.size());
+        } finally {
+            redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(reconcileLockKey), lockToken);
+        }
+    }
+}
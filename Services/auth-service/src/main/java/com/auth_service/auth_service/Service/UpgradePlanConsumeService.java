@@ -1,40 +1,143 @@
 package com.auth_service.auth_service.Service;
 
 import com.auth_service.auth_service.DTO.PlanUpgradeDto;
+import com.auth_service.auth_service.Entity.type.Plan;
+import com.auth_service.auth_service.Entity.type.ProcessedEvent;
 import com.auth_service.auth_service.Entity.type.User;
+import com.auth_service.auth_service.Repository.ProcessedEventRepository;
 import com.auth_service.auth_service.Repository.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper; // Required for JSON parsing
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional; // Good practice for database updates
-import java.util.Optional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies plan upgrades a poll at a time. Events already recorded in
+ * {@code processed_events} are dropped, the remaining upgrades are collapsed to
+ * the latest plan per user, and each plan is written with one bulk UPDATE.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class UpgradePlanConsumeService {
 
     private final UserRepository userRepository;
+    private final ProcessedEventRepository processedEventRepository;
     private final ObjectMapper objectMapper; // Inject ObjectMapper for JSON processing
+    private final UserService userService;
+    private final PlanCacheService planCacheService;
+    private final MeterRegistry meterRegistry;
 
-    @KafkaListener(topics = "user-plan-upgrade")
+    @KafkaListener(topics = "user-plan-upgrade", batch = "true")
     @Transactional
-    public void listen(String message) throws Exception {
-        log.info("Received message from Kafka: {}", message);
-            PlanUpgradeDto planUpgradeDto = objectMapper.readValue(message, PlanUpgradeDto.class);
-            Optional<User> userOptional = userRepository.findById(planUpgradeDto.getUserId());
-
-            if (userOptional.isPresent()) {
-                User user = userOptional.get();
-                user.setPlan(planUpgradeDto.getPlan());
-                userRepository.save(user);
-
-                log.info("Successfully upgraded plan for user ID {} to {}", user.getId(), user.getPlan());
-            } else {
-                log.warn("User with ID {} not found for plan upgrade.", planUpgradeDto.getUserId());
+    public void listen(List<String> messages) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        log.info("Received {} plan upgrade messages from Kafka", messages.size());
+
+        List<PlanUpgradeDto> upgrades = parse(messages);
+
+        Set<String> eventIds = upgrades.stream()
+                .map(PlanUpgradeDto::getEventId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> seen = new HashSet<>();
+        processedEventRepository.findAllById(eventIds).forEach(event -> seen.add(event.getEventId()));
+
+        // Later messages win; the producer keys by user, so partition order is upgrade order.
+        Map<Long, Plan> latestPlans = new LinkedHashMap<>();
+        List<ProcessedEvent> newEvents = new ArrayList<>();
+        int duplicates = 0;
+        for (PlanUpgradeDto upgrade : upgrades) {
+            String eventId = upgrade.getEventId();
+            if (eventId != null && !seen.add(eventId)) {
+                duplicates++;
+                continue;
+            }
+            if (upgrade.getUserId() == null || upgrade.getPlan() == null) {
+                log.warn("Ignoring incomplete plan upgrade: {}", upgrade);
+                continue;
             }
+            latestPlans.put(upgrade.getUserId(), upgrade.getPlan());
+            if (eventId != null) {
+                newEvents.add(new ProcessedEvent(eventId, LocalDateTime.now()));
+            }
+        }
+
+        List<User> users = latestPlans.isEmpty() ? List.of() : userRepository.findAllById(latestPlans.keySet());
+        if (users.size() < latestPlans.size()) {
+            Set<Long> foundIds = users.stream().map(User::getId).collect(Collectors.toSet());
+            latestPlans.keySet().stream()
+                    .filter(id -> !foundIds.contains(id))
+                    .forEach(id -> log.warn("User with ID {} not found for plan upgrade.", id));
+            latestPlans.keySet().retainAll(foundIds);
+        }
+
+        Map<Plan, List<Long>> usersByPlan = latestPlans.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue, LinkedHashMap::new,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        usersByPlan.forEach((plan, ids) -> {
+            int updated = userRepository.updatePlanForUsers(plan, ids);
+            log.info("Upgraded {} users to plan {}", updated, plan);
+        });
+        processedEventRepository.saveAll(newEvents);
+
+        propagateAfterCommit(users, latestPlans);
+
+        meterRegistry.summary("plan.upgrade.batch.size").record(messages.size());
+        meterRegistry.counter("plan.upgrade.applied").increment(latestPlans.size());
+        meterRegistry.counter("plan.upgrade.duplicates").increment(duplicates);
+        sample.stop(meterRegistry.timer("plan.upgrade.batch.duration"));
+    }
+
+    // A malformed record is reported by index so the error handler retries the rest and dead-letters only it.
+    private List<PlanUpgradeDto> parse(List<String> messages) {
+        List<PlanUpgradeDto> upgrades = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            try {
+                upgrades.add(objectMapper.readValue(messages.get(i), PlanUpgradeDto.class));
+            } catch (Exception e) {
+                throw new BatchListenerFailedException("Unreadable plan upgrade message", e, i);
+            }
+        }
+        return upgrades;
+    }
+
+    // Doing this before the commit would let a concurrent read re-cache the old plan.
+    private void propagateAfterCommit(List<User> users, Map<Long, Plan> plans) {
+        if (users.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            propagate(users, plans);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                propagate(users, plans);
+            }
+        });
+    }
 
+    private void propagate(List<User> users, Map<Long, Plan> plans) {
+        userService.evictCachedUsers(users);
+        planCacheService.publishAll(plans);
     }
 }
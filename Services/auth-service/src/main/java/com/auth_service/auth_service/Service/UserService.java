@@ -1,15 +1,29 @@
 package com.auth_service.auth_service.Service;
 
+import com.auth_service.auth_service.DTO.UserBatchResponse;
+import com.auth_service.auth_service.DTO.UserSummary;
 import com.auth_service.auth_service.DTO.WelcomeEmailNotification;
 import com.auth_service.auth_service.Entity.type.User;
+import com.auth_service.auth_service.Exception.BatchTooLargeException;
 import com.auth_service.auth_service.Repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -18,8 +32,15 @@ public class UserService {
     @Autowired
     private final UserRepository userRepository;
     private final QueueService queueService;
+    private final CacheManager cacheManager;
 
-    @CacheEvict(value = "user_email", key = "#oAuth2User.getAttribute('email')")
+    @Value("${app.auth.batch-get.max-size:100}")
+    private int batchGetMaxSize;
+
+    @Caching(evict = {
+            @CacheEvict(value = "user_email", key = "#oAuth2User.getAttribute('email')"),
+            @CacheEvict(value = "user_id", key = "#result.id")
+    })
     public User processOAuth2User(OAuth2User oAuth2User) {
         String email = oAuth2User.getAttribute("email");
         String name = oAuth2User.getAttribute("name");
@@ -54,4 +75,105 @@ public class UserService {
     public Optional<User> findById(Long id) {
         return userRepository.findById(id);
     }
-}
\ No newline at end of file
+
+    /**
+     * Same as {@link #findById} but served from the short-lived "user_id" cache;
+     * for fields the token does not carry or that may have changed since it was issued.
+     */
+    @Cacheable(value = "user_id", key = "#id", unless = "#result == null")
+    public Optional<User> findCachedById(Long id) {
+        return userRepository.findById(id);
+    }
+
+    @Caching(evict = {
+            @CacheEvict(value = "user_id", key = "#user.id"),
+            @CacheEvict(value = "user_email", key = "#user.email")
+    })
+    public void evictCachedUser(User user) {
+    }
+
+    /** Bulk form of {@link #evictCachedUser} for batch updates that bypass the entity. */
+    public void evictCachedUsers(Collection<User> users) {
+        Cache idCache = cacheManager.getCache("user_id");
+        Cache emailCache = cacheManager.getCache("user_email");
+        for (User user : users) {
+            if (idCache != null) {
+                idCache.evict(user.getId());
+            }
+            if (emailCache != null) {
+                emailCache.evict(user.getEmail());
+            }
+        }
+    }
+
+    /**
+     * Resolves many users in one round trip. Each id or email is first looked up in
+     * the same "user_id"/"user_email" cache entries the single lookups use; the
+     * misses are then loaded with one query per key type and written back to the cache.
+     */
+    public UserBatchResponse findSummaries(Collection<Long> ids, Collection<String> emails) {
+        Set<Long> requestedIds = ids == null ? new LinkedHashSet<>() : new LinkedHashSet<>(ids);
+        Set<String> requestedEmails = emails == null ? new LinkedHashSet<>() : new LinkedHashSet<>(emails);
+        requestedIds.remove(null);
+        requestedEmails.remove(null);
+        if (requestedIds.size() + requestedEmails.size() > batchGetMaxSize) {
+            throw new BatchTooLargeException(batchGetMaxSize);
+        }
+
+        Cache idCache = cacheManager.getCache("user_id");
+        Cache emailCache = cacheManager.getCache("user_email");
+        Map<Long, User> found = new LinkedHashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+        List<String> missingEmails = new ArrayList<>();
+
+        List<Long> idsToLoad = new ArrayList<>();
+        for (Long id : requestedIds) {
+            Cache.ValueWrapper cached = idCache == null ? null : idCache.get(id);
+            if (cached == null) {
+                idsToLoad.add(id);
+            } else if (cached.get() instanceof User user) {
+                found.put(user.getId(), user);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        List<String> emailsToLoad = new ArrayList<>();
+        for (String email : requestedEmails) {
+            Cache.ValueWrapper cached = emailCache == null ? null : emailCache.get(email);
+            if (cached == null) {
+                emailsToLoad.add(email);
+            } else if (cached.get() instanceof User user) {
+                found.putIfAbsent(user.getId(), user);
+            } else {
+                missingEmails.add(email);
+            }
+        }
+
+        // @Cacheable stores the User unwrapped from its Optional, so entries are written back in that shape.
+        if (!idsToLoad.isEmpty()) {
+            Set<Long> loaded = new LinkedHashSet<>();
+            for (User user : userRepository.findAllById(idsToLoad)) {
+                found.putIfAbsent(user.getId(), user);
+                loaded.add(user.getId());
+                if (idCache != null) {
+                    idCache.put(user.getId(), user);
+                }
+            }
+            idsToLoad.stream().filter(id -> !loaded.contains(id)).forEach(missingIds::add);
+        }
+        if (!emailsToLoad.isEmpty()) {
+            Set<String> loaded = new LinkedHashSet<>();
+            for (User user : userRepository.findAllByEmailIn(emailsToLoad)) {
+                found.putIfAbsent(user.getId(), user);
+                loaded.add(user.getEmail());
+                if (emailCache != null) {
+                    emailCache.put(user.getEmail(), user);
+                }
+            }
+            emailsToLoad.stream().filter(email -> !loaded.contains(email)).forEach(missingEmails::add);
+        }
+
+        List<UserSummary> users = found.values().stream().map(UserSummary::from).toList();
+        return new UserBatchResponse(users, missingIds, missingEmails);
+    }
+}
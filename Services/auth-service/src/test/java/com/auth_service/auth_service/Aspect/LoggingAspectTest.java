@@ -0,0 +1,104 @@
+package com.auth_service.auth_service.Aspect;
+
+import com.auth_service.auth_service.Config.MethodLoggingProperties;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoggingAspectTest {
+
+    @Mock private ProceedingJoinPoint joinPoint;
+    @Mock private MethodSignature signature;
+
+    private MethodLoggingProperties properties;
+    private LoggingAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MethodLoggingProperties();
+        aspect = new LoggingAspect(properties);
+    }
+
+    @Test
+    void describe_ShouldSummariseLargeValuesWithoutStringifyingThem() {
+        assertEquals("byte[4096]", aspect.describe(new byte[4096]));
+        assertEquals("ByteArrayInputStream", aspect.describe(new ByteArrayInputStream(new byte[10])));
+        assertEquals("ArrayList(size=3)", aspect.describe(new ArrayList<>(List.of(1, 2, 3))));
+        assertEquals("Optional[42]", aspect.describe(Optional.of(42L)));
+        assertEquals("null", aspect.describe(null));
+    }
+
+    @Test
+    void describe_ShouldCapLongStringsAndMaskTokens() {
+        properties.setMaxArgLength(5);
+
+        assertEquals("\"abc\"", aspect.describe("abc"));
+        assertEquals("\"abcde…\"(8 chars)", aspect.describe("abcdefgh"));
+        assertEquals("***", aspect.describe("Bearer abc.def.ghi"));
+        assertEquals("***", aspect.describe("eyJhbGciOiJIUzI1NiJ9.e30.sig"));
+    }
+
+    @Test
+    void describeArgs_ShouldRedactSensitiveParameterNames() {
+        LoggingAspect.MethodLog methodLog = new LoggingAspect.MethodLog(null, "AuthService.login", new boolean[]{false, true});
+
+        assertEquals("\"alice\", ***", aspect.describeArgs(methodLog, new Object[]{"alice", "hunter2"}));
+    }
+
+    @Test
+    void isSensitive_ShouldMatchCredentialNamesButNotEveryKey() {
+        assertTrue(aspect.isSensitive("password"));
+        assertTrue(aspect.isSensitive("apiKey"));
+        assertTrue(aspect.isSensitive("secretKey"));
+        assertTrue(aspect.isSensitive("refreshToken"));
+        assertFalse(aspect.isSensitive("s3Key"));
+        assertFalse(aspect.isSensitive("idempotencyKey"));
+    }
+
+    @Test
+    void logCall_ShouldReturnResultAndRethrowFailures() throws Throwable {
+        stubSignature();
+        when(joinPoint.getArgs()).thenReturn(new Object[]{"alice", "hunter2"});
+        when(joinPoint.proceed()).thenReturn("ok").thenThrow(new IllegalStateException("boom"));
+
+        assertEquals("ok", aspect.logCall(joinPoint));
+        assertThrows(IllegalStateException.class, () -> aspect.logCall(joinPoint));
+    }
+
+    @Test
+    void logCall_Disabled_ShouldOnlyProceed() throws Throwable {
+        properties.setEnabled(false);
+        when(joinPoint.proceed()).thenReturn("ok");
+
+        assertEquals("ok", aspect.logCall(joinPoint));
+        verify(joinPoint, never()).getSignature();
+    }
+
+    private void stubSignature() throws NoSuchMethodException {
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.getMethod()).thenReturn(Target.class.getMethod("login", String.class, String.class));
+        when(signature.getParameterNames()).thenReturn(new String[]{"username", "password"});
+        when(signature.getParameterTypes()).thenReturn(new Class<?>[]{String.class, String.class});
+        when(signature.getDeclaringType()).thenReturn(Target.class);
+        when(signature.getName()).thenReturn("login");
+    }
+
+    static class Target {
+        public String login(String username, String password) {
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.auth_service.auth_service.Security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token in JwtAuthenticationFilter:
+ * the old path rebuilt the key and parser and verified the signature four
+ * times, the new one parses once with a prebuilt parser.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.auth_service.auth_service.Security.JwtUtilBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890adsf54sdf54s45fs54df54";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 86400000);
+        token = jwtUtil.generateToken("bench@example.com", 42L, "Bench User");
+    }
+
+    @Benchmark
+    public Object perRequestParsing() {
+        String email = legacyClaims(token).getSubject();
+        boolean valid = legacyClaims(token) != null;
+        boolean expired = legacyClaims(token).getExpiration().before(new Date());
+        Long userId = Long.valueOf(legacyClaims(token).get("userId").toString());
+        return valid && !expired ? email + userId : null;
+    }
+
+    @Benchmark
+    public Object singleParse() {
+        return jwtUtil.parseToken(token).orElse(null);
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -1,9 +1,11 @@
 // Services/auth-service/src/test/java/com/auth_service/auth_service/Security/JwtUtilTest.java
 package com.auth_service.auth_service.Security;
 
+import com.auth_service.auth_service.Entity.type.Plan;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -15,9 +17,7 @@ class JwtUtilTest {
 
     @BeforeEach
     void setUp() {
-        jwtUtil = new JwtUtil();
-        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", testSecret);
-        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", jwtExpirationMs);
+        jwtUtil = new JwtUtil(testSecret, jwtExpirationMs);
     }
 
     @Test
@@ -31,25 +31,25 @@ class JwtUtilTest {
     }
 
     @Test
-    void getEmailFromToken_ShouldReturnCorrectEmail() {
+    void parseToken_ShouldReturnCorrectEmail() {
         String email = "test@example.com";
         Long userId = 1L;
         String name = "Test User";
         String token = jwtUtil.generateToken(email, userId, name);
 
-        String extractedEmail = jwtUtil.getEmailFromToken(token);
+        String extractedEmail = jwtUtil.parseToken(token).orElseThrow().email();
 
         assertEquals(email, extractedEmail);
     }
 
     @Test
-    void getUserIdFromToken_ShouldReturnCorrectUserId() {
+    void parseToken_ShouldReturnCorrectUserId() {
 
         String email = "test@example.com";
         Long userId = 123L;
         String name = "Test User";
         String token = jwtUtil.generateToken(email, userId, name);
-        Long extractedUserId = jwtUtil.getUserIdFromToken(token);
+        Long extractedUserId = jwtUtil.parseToken(token).orElseThrow().userId();
         assertEquals(userId, extractedUserId);
     }
 
@@ -73,14 +73,52 @@ class JwtUtilTest {
     }
 
     @Test
-    void isTokenExpired_NewToken_ShouldReturnFalse() {
+    void parseToken_NewToken_ShouldExpireInTheFuture() {
         // Arrange
         String token = jwtUtil.generateToken("test@example.com", 1L, "Test");
 
         // Act
-        boolean isExpired = jwtUtil.isTokenExpired(token);
+        Instant expiresAt = jwtUtil.parseToken(token).orElseThrow().expiresAt();
 
         // Assert
-        assertFalse(isExpired);
+        assertTrue(expiresAt.isAfter(Instant.now()));
+    }
+
+    @Test
+    void parseToken_ValidToken_ShouldReturnAllClaims() {
+        String token = jwtUtil.generateToken("test@example.com", 42L, "Test User");
+
+        TokenClaims claims = jwtUtil.parseToken(token).orElseThrow();
+
+        assertEquals("test@example.com", claims.email());
+        assertEquals(42L, claims.userId());
+        assertEquals("Test User", claims.name());
+        assertNull(claims.plan());
+        assertNotNull(claims.expiresAt());
+    }
+
+    @Test
+    void parseToken_WithPlanClaim_ShouldReturnPlan() {
+        String token = jwtUtil.generateToken("test@example.com", 42L, "Test User", Plan.PRO);
+
+        assertEquals(Plan.PRO, jwtUtil.parseToken(token).orElseThrow().plan());
+    }
+
+    @Test
+    void parseToken_ExpiredToken_ShouldReturnEmpty() {
+        JwtUtil expiredIssuer = new JwtUtil(testSecret, -1000);
+        String token = expiredIssuer.generateToken("test@example.com", 1L, "Test");
+
+        assertTrue(jwtUtil.parseToken(token).isEmpty());
+        assertFalse(jwtUtil.validateToken(token));
+    }
+
+    @Test
+    void parseToken_TokenSignedWithOtherKey_ShouldReturnEmpty() {
+        JwtUtil otherIssuer = new JwtUtil("anotherSecretKey12345678901234567890123456789012345678901234", jwtExpirationMs);
+        String token = otherIssuer.generateToken("test@example.com", 1L, "Test");
+
+        assertTrue(jwtUtil.parseToken(token).isEmpty());
+        assertFalse(jwtUtil.validateToken(token));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+package com.auth_service.auth_service.Security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceCallerAuthorizationTest {
+
+    @Test
+    void isServiceCaller_MatchingToken_ShouldAllow() {
+        ServiceCallerAuthorization authorization = new ServiceCallerAuthorization("s3cret");
+
+        assertTrue(authorization.isServiceCaller(request("s3cret")));
+    }
+
+    @Test
+    void isServiceCaller_WrongOrMissingToken_ShouldDeny() {
+        ServiceCallerAuthorization authorization = new ServiceCallerAuthorization("s3cret");
+
+        assertFalse(authorization.isServiceCaller(request("guess")));
+        assertFalse(authorization.isServiceCaller(request(null)));
+    }
+
+    @Test
+    void isServiceCaller_NoTokenConfigured_ShouldDenyEveryone() {
+        ServiceCallerAuthorization authorization = new ServiceCallerAuthorization("");
+
+        assertFalse(authorization.isServiceCaller(request("")));
+        assertFalse(authorization.isServiceCaller(request(null)));
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/users:batchGet");
+        if (token != null) {
+            request.addHeader(ServiceCallerAuthorization.HEADER, token);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,108 @@
+package com.auth_service.auth_service.Service;
+
+import com.auth_service.auth_service.Aspect.PerformanceMonitoringAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of PerformanceMonitoringAspect on a trivial service method:
+ * no proxy, the previous aspect that built and registered a Timer on every
+ * call, and the current one that caches the method's timers.
+ *
+ * Lives in the Service package so the aspect's execution(* com..Service..*(..))
+ * pointcut matches the benchmark target.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.auth_service.auth_service.Service.PerformanceMonitoringAspectBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PerformanceMonitoringAspectBenchmark {
+
+    private BenchTarget direct;
+    private BenchTarget legacy;
+    private BenchTarget cached;
+    private long input;
+
+    @Setup
+    public void setUp() {
+        direct = new BenchTarget();
+        legacy = proxy(new LegacyMonitoringAspect(new SimpleMeterRegistry()));
+        cached = proxy(new PerformanceMonitoringAspect(new SimpleMeterRegistry()));
+        input = 42L;
+    }
+
+    @Benchmark
+    public long noAspect() {
+        return direct.work(input);
+    }
+
+    @Benchmark
+    public long registerPerCall() {
+        return legacy.work(input);
+    }
+
+    @Benchmark
+    public long cachedTimers() {
+        return cached.work(input);
+    }
+
+    private static BenchTarget proxy(Object aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new BenchTarget());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    public static class BenchTarget {
+        public long work(long value) {
+            return value * 31 + 7;
+        }
+    }
+
+    /** The aspect as it was before the timers were cached. */
+    @Aspect
+    public static class LegacyMonitoringAspect {
+
+        private final MeterRegistry meterRegistry;
+
+        public LegacyMonitoringAspect(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Around("execution(* com..Service..*(..))")
+        public Object monitor(ProceedingJoinPoint joinPoint) throws Throwable {
+            String className = joinPoint.getSignature().getDeclaringTypeName();
+            String methodName = joinPoint.getSignature().getName();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Object result = joinPoint.proceed();
+            sample.stop(Timer.builder("method.execution.time")
+                    .tag("class", className)
+                    .tag("method", methodName)
+                    .tag("status", "success")
+                    .register(meterRegistry));
+            return result;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PerformanceMonitoringAspectBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,92 @@
+package com.auth_service.auth_service.Service;
+
+import com.auth_service.auth_service.Entity.type.ProcessedEvent;
+import com.auth_service.auth_service.Repository.ProcessedEventRepository;
+import com.auth_service.auth_service.Repository.StorageUsageRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StorageUsageConsumeServiceTest {
+
+    @Mock
+    private StorageUsageRepository storageUsageRepository;
+
+    @Mock
+    private ProcessedEventRepository processedEventRepository;
+
+    private StorageUsageConsumeService consumeService;
+
+    @BeforeEach
+    void setUp() {
+        consumeService = new StorageUsageConsumeService(storageUsageRepository, processedEventRepository, new ObjectMapper());
+    }
+
+    private String message(Long userId, long deltaBytes, String eventId) {
+        return "{\"userId\":" + userId + ",\"deltaBytes\":" + deltaBytes + ",\"eventId\":\"" + eventId + "\"}";
+    }
+
+    @Test
+    void listen_ShouldSumDeltasPerUser() {
+        when(processedEventRepository.findAllById(anySet())).thenReturn(List.of());
+
+        consumeService.listen(List.of(
+                message(1L, 100, "e1"),
+                message(2L, 50, "e2"),
+                message(1L, -30, "e3")));
+
+        verify(storageUsageRepository).applyDelta(eq(1L), eq(70L), any(LocalDateTime.class));
+        verify(storageUsageRepository).applyDelta(eq(2L), eq(50L), any(LocalDateTime.class));
+        verifyNoMoreInteractions(storageUsageRepository);
+        verify(processedEventRepository).saveAll(argThat(events -> ((List<?>) events).size() == 3));
+    }
+
+    @Test
+    void listen_ShouldSkipAlreadyProcessedAndRepeatedEvents() {
+        when(processedEventRepository.findAllById(anySet()))
+                .thenReturn(List.of(new ProcessedEvent("e1", LocalDateTime.now())));
+
+        consumeService.listen(List.of(
+                message(1L, 100, "e1"),
+                message(1L, 40, "e2"),
+                message(1L, 40, "e2")));
+
+        verify(storageUsageRepository).applyDelta(eq(1L), eq(40L), any(LocalDateTime.class));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ProcessedEvent>> saved = ArgumentCaptor.forClass(List.class);
+        verify(processedEventRepository).saveAll(saved.capture());
+        assertEquals(List.of("e2"), saved.getValue().stream().map(ProcessedEvent::getEventId).toList());
+    }
+
+    @Test
+    void listen_AllEventsAlreadyProcessed_ShouldNotTouchUsage() {
+        when(processedEventRepository.findAllById(anySet()))
+                .thenReturn(List.of(new ProcessedEvent("e1", LocalDateTime.now())));
+
+        consumeService.listen(List.of(message(1L, 100, "e1")));
+
+        verifyNoInteractions(storageUsageRepository);
+    }
+
+    @Test
+    void listen_MalformedRecord_ShouldReportItsIndex() {
+        BatchListenerFailedException error = assertThrows(BatchListenerFailedException.class,
+                () -> consumeService.listen(List.of(message(1L, 100, "e1"), "not json")));
+
+        assertEquals(1, error.getIndex());
+        verifyNoInteractions(storageUsageRepository);
+    }
+}
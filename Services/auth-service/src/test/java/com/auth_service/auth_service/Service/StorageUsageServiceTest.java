@@ -0,0 +1,130 @@
+package com.auth_service.auth_service.Service;
+
+import com.auth_service.auth_service.Entity.type.StorageUsage;
+import com.auth_service.auth_service.Repository.StorageUsageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StorageUsageServiceTest {
+
+    @Mock
+    private StorageUsageRepository storageUsageRepository;
+
+    @Mock
+    private S3Service s3Service;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @InjectMocks
+    private StorageUsageService storageUsageService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(storageUsageService, "reconcileAfter", Duration.ofHours(24));
+        ReflectionTestUtils.setField(storageUsageService, "reconcileBatchSize", 100);
+        ReflectionTestUtils.setField(storageUsageService, "reconcileLockKey", "storage-usage:reconcile-lock");
+        ReflectionTestUtils.setField(storageUsageService, "reconcileLockTtl", Duration.ofMinutes(10));
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(storageUsageRepository.reconcile(anyLong(), anyLong(), anyLong(), any(LocalDateTime.class)))
+                .thenAnswer(i -> new StorageUsage(i.getArgument(0), i.<Long>getArgument(1), i.getArgument(3), i.getArgument(3)));
+    }
+
+    @Test
+    void getUsage_ProjectionExists_ShouldNotListS3() {
+        LocalDateTime reconciledAt = LocalDateTime.now().minusHours(1);
+        when(storageUsageRepository.findById(1L))
+                .thenReturn(Optional.of(new StorageUsage(1L, 2048, reconciledAt, reconciledAt)));
+
+        StorageUsage usage = storageUsageService.getUsage(1L);
+
+        assertEquals(2048, usage.getBytesUsed());
+        assertEquals(reconciledAt, usage.getLastReconciledAt());
+        verifyNoInteractions(s3Service);
+    }
+
+    @Test
+    void getUsage_NoProjection_ShouldBootstrapFromS3() {
+        when(storageUsageRepository.findById(1L)).thenReturn(Optional.empty());
+        when(s3Service.getUserFolderSize("1")).thenReturn(4096L);
+
+        StorageUsage usage = storageUsageService.getUsage(1L);
+
+        assertEquals(4096, usage.getBytesUsed());
+        assertNotNull(usage.getLastReconciledAt());
+        verify(storageUsageRepository).reconcile(eq(1L), eq(4096L), eq(0L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void getUsage_RowCreatedByEventOnly_ShouldListS3() {
+        when(storageUsageRepository.findById(1L))
+                .thenReturn(Optional.of(new StorageUsage(1L, 100, LocalDateTime.now(), null)));
+        when(s3Service.getUserFolderSize("1")).thenReturn(4096L);
+
+        storageUsageService.getUsage(1L);
+
+        // The snapshot is passed along so deltas applied during the listing are kept.
+        verify(storageUsageRepository).reconcile(eq(1L), eq(4096L), eq(100L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void reconcile_S3Failure_ShouldNotRecordZeroUsage() {
+        when(s3Service.getUserFolderSize("1")).thenThrow(new RuntimeException("S3 down"));
+        when(storageUsageRepository.findById(1L)).thenReturn(Optional.empty());
+
+        StorageUsage usage = storageUsageService.reconcile(1L);
+
+        assertNull(usage.getLastReconciledAt());
+        verify(storageUsageRepository, never()).reconcile(anyLong(), anyLong(), anyLong(), any());
+        verify(storageUsageRepository, never()).save(any());
+    }
+
+    @Test
+    void reconcileStale_ShouldRelistOnlyStaleUsers() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        when(storageUsageRepository.findIdsReconciledBefore(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(storageUsageRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(s3Service.getUserFolderSize(anyString())).thenReturn(0L);
+
+        storageUsageService.reconcileStale();
+
+        verify(s3Service).getUserFolderSize("1");
+        verify(s3Service).getUserFolderSize("2");
+        verify(storageUsageRepository, times(2)).reconcile(anyLong(), eq(0L), eq(0L), any(LocalDateTime.class));
+        verify(storageUsageRepository, never()).save(any());
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("storage-usage:reconcile-lock")), anyString());
+    }
+
+    @Test
+    void reconcileStale_LockHeldByAnotherReplica_ShouldDoNothing() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+
+        storageUsageService.reconcileStale();
+
+        verifyNoInteractions(s3Service);
+        verify(storageUsageRepository, never()).findIdsReconciledBefore(any(), any());
+    }
+}
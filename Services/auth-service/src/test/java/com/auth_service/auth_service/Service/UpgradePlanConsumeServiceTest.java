@@ -0,0 +1,127 @@
+package com.auth_service.auth_service.Service;
+
+import com.auth_service.auth_service.Entity.type.Plan;
+import com.auth_service.auth_service.Entity.type.ProcessedEvent;
+import com.auth_service.auth_service.Entity.type.User;
+import com.auth_service.auth_service.Repository.ProcessedEventRepository;
+import com.auth_service.auth_service.Repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UpgradePlanConsumeServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ProcessedEventRepository processedEventRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private PlanCacheService planCacheService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UpgradePlanConsumeService consumeService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        consumeService = new UpgradePlanConsumeService(userRepository, processedEventRepository,
+                new ObjectMapper(), userService, planCacheService, meterRegistry);
+    }
+
+    private User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        return user;
+    }
+
+    private String message(Long userId, String plan, String eventId) {
+        return "{\"userId\":" + userId + ",\"plan\":\"" + plan + "\",\"eventId\":\"" + eventId + "\"}";
+    }
+
+    @Test
+    void listen_ShouldGroupUpdatesByPlanAndRecordEvents() {
+        when(processedEventRepository.findAllById(anySet())).thenReturn(List.of());
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(user(1L), user(2L), user(3L)));
+
+        consumeService.listen(List.of(
+                message(1L, "PRO", "cs_1"),
+                message(2L, "PRO", "cs_2"),
+                message(3L, "TEAM", "cs_3")));
+
+        verify(userRepository).updatePlanForUsers(Plan.PRO, List.of(1L, 2L));
+        verify(userRepository).updatePlanForUsers(Plan.TEAM, List.of(3L));
+        verify(processedEventRepository).saveAll(argThat(events -> ((List<?>) events).size() == 3));
+        verify(planCacheService).publishAll(Map.of(1L, Plan.PRO, 2L, Plan.PRO, 3L, Plan.TEAM));
+        assertEquals(3.0, meterRegistry.counter("plan.upgrade.applied").count());
+    }
+
+    @Test
+    void listen_ShouldSkipAlreadyProcessedAndRepeatedEvents() {
+        when(processedEventRepository.findAllById(anySet()))
+                .thenReturn(List.of(new ProcessedEvent("cs_1", LocalDateTime.now())));
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(user(2L)));
+
+        consumeService.listen(List.of(
+                message(1L, "PRO", "cs_1"),
+                message(2L, "TEAM", "cs_2"),
+                message(2L, "TEAM", "cs_2")));
+
+        verify(userRepository).updatePlanForUsers(Plan.TEAM, List.of(2L));
+        verify(userRepository, never()).updatePlanForUsers(eq(Plan.PRO), anyCollection());
+        assertEquals(2.0, meterRegistry.counter("plan.upgrade.duplicates").count());
+    }
+
+    @Test
+    void listen_UnknownUser_ShouldNotUpdateOrPublish() {
+        when(processedEventRepository.findAllById(anySet())).thenReturn(List.of());
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of());
+
+        consumeService.listen(List.of(message(9L, "PRO", "cs_9")));
+
+        verify(userRepository, never()).updatePlanForUsers(any(), anyCollection());
+        verifyNoInteractions(planCacheService, userService);
+    }
+
+    @Test
+    void listen_MalformedMessage_ShouldReportItsIndex() {
+        BatchListenerFailedException error = assertThrows(BatchListenerFailedException.class,
+                () -> consumeService.listen(List.of(message(1L, "PRO", "cs_1"), "not json")));
+
+        assertEquals(1, error.getIndex());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void listen_ShouldEvictCachedUsersInBulk() {
+        when(processedEventRepository.findAllById(anySet())).thenReturn(List.of());
+        List<User> users = List.of(user(1L));
+        when(userRepository.findAllById(anyCollection())).thenReturn(users);
+
+        consumeService.listen(List.of(message(1L, "PRO", "cs_1")));
+
+        ArgumentCaptor<List<User>> evicted = ArgumentCaptor.forClass(List.class);
+        verify(userService).evictCachedUsers(evicted.capture());
+        assertEquals(List.of(1L), evicted.getValue().stream().map(User::getId).toList());
+    }
+}
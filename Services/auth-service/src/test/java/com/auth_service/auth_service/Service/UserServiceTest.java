@@ -1,7 +1,10 @@
 package com.auth_service.auth_service.Service;
 
+import com.auth_service.auth_service.DTO.UserBatchResponse;
+import com.auth_service.auth_service.DTO.UserSummary;
 import com.auth_service.auth_service.DTO.WelcomeEmailNotification;
 import com.auth_service.auth_service.Entity.type.User;
+import com.auth_service.auth_service.Exception.BatchTooLargeException;
 import com.auth_service.auth_service.Repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,11 +12,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +33,9 @@ class UserServiceTest {
     @Mock
     private QueueService queueService;
 
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private UserService userService;
 
@@ -33,6 +44,15 @@ class UserServiceTest {
     @BeforeEach
     void setUp() {
         oAuth2User = mock(OAuth2User.class);
+        ReflectionTestUtils.setField(userService, "batchGetMaxSize", 100);
+    }
+
+    private User user(Long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setName("User " + id);
+        return user;
     }
 
     private void setupOAuth2UserMock() {
@@ -115,4 +135,48 @@ class UserServiceTest {
         assertTrue(result.isPresent());
         assertEquals(1L, result.get().getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findSummaries_ShouldServeCachedEntriesAndLoadMissesInOneQuery() {
+        ConcurrentMapCache idCache = new ConcurrentMapCache("user_id");
+        ConcurrentMapCache emailCache = new ConcurrentMapCache("user_email");
+        when(cacheManager.getCache("user_id")).thenReturn(idCache);
+        when(cacheManager.getCache("user_email")).thenReturn(emailCache);
+        idCache.put(1L, user(1L, "a@example.com"));
+        when(userRepository.findAllById(List.of(2L, 3L))).thenReturn(List.of(user(2L, "b@example.com")));
+        when(userRepository.findAllByEmailIn(List.of("c@example.com"))).thenReturn(List.of(user(4L, "c@example.com")));
+
+        UserBatchResponse response = userService.findSummaries(List.of(1L, 2L, 3L), List.of("c@example.com"));
+
+        assertEquals(List.of(1L, 2L, 4L), response.getUsers().stream().map(UserSummary::id).toList());
+        assertEquals(List.of(3L), response.getMissingIds());
+        assertTrue(response.getMissingEmails().isEmpty());
+        verify(userRepository, times(1)).findAllById(anyCollection());
+        assertNotNull(idCache.get(2L));
+        assertNotNull(emailCache.get("c@example.com"));
+    }
+
+    @Test
+    void findSummaries_AllCached_ShouldNotQueryRepository() {
+        ConcurrentMapCache idCache = new ConcurrentMapCache("user_id");
+        ConcurrentMapCache emailCache = new ConcurrentMapCache("user_email");
+        when(cacheManager.getCache("user_id")).thenReturn(idCache);
+        when(cacheManager.getCache("user_email")).thenReturn(emailCache);
+        idCache.put(1L, user(1L, "a@example.com"));
+        emailCache.put("a@example.com", user(1L, "a@example.com"));
+
+        UserBatchResponse response = userService.findSummaries(List.of(1L), List.of("a@example.com"));
+
+        assertEquals(1, response.getUsers().size());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void findSummaries_TooManyKeys_ShouldReject() {
+        ReflectionTestUtils.setField(userService, "batchGetMaxSize", 2);
+
+        assertThrows(BatchTooLargeException.class,
+                () -> userService.findSummaries(List.of(1L, 2L), List.of("a@example.com")));
+        verifyNoInteractions(userRepository);
+    }
+}
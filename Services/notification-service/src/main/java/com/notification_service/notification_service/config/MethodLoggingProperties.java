@@ -0,0 +1,32 @@
+package com.notification_service.notification_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Settings for LoggingAspect. Which packages log at all is still decided by
+ * {@code logging.level.*}: call lines go to the target class's own logger at DEBUG.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.method-logging")
+public class MethodLoggingProperties {
+
+    private boolean enabled = true;
+
+    /** Fraction of successful calls logged when DEBUG is on for the class; 1.0 logs every call. */
+    private double sampleRate = 0.01;
+
+    /** Calls slower than this are logged at WARN regardless of sampling. */
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    /** String arguments are cut to this many characters. */
+    private int maxArgLength = 128;
+
+    /** Parameters whose name contains one of these (case-insensitive) are printed as ***. */
+    private Set<String> redactedNames = Set.of("password", "secret", "token", "jwt", "authorization", "apiKey", "secretKey", "email");
+}
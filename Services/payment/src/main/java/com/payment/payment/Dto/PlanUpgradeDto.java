@@ -10,4 +10,6 @@ import lombok.NoArgsConstructor;
 public class PlanUpgradeDto {
     private Long userId;
     private Plan plan;
+    /** Stripe session id; lets the consumer drop a replayed webhook. */
+    private String eventId;
 }
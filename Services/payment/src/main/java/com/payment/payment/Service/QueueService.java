@@ -25,7 +25,8 @@ public class QueueService {
             System.out.println("we received a request to publish ");
             String jsonMessage = objectMapper.writeValueAsString(planUpgradeDto);
             log.info("User Id "+planUpgradeDto.getUserId()+" is upgraded to plan "+planUpgradeDto.getPlan());
-            kafkaTemplate.send(metadataTopic, jsonMessage);
+            // Keyed by user so every upgrade for one user lands on the same partition, in order.
+            kafkaTemplate.send(metadataTopic, String.valueOf(planUpgradeDto.getUserId()), jsonMessage);
         } catch (JsonProcessingException e) {
             log.error("Failed to publish updated plan", e);
         }
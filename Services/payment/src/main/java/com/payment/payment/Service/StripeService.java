@@ -147,7 +147,7 @@ public class StripeService {
         payment.setTransactionDate(LocalDateTime.now());
         paymentRepository.save(payment);
 
-        PlanUpgradeDto upgradeDto = new PlanUpgradeDto(payment.getUserId(), payment.getPlanPurchased());
+        PlanUpgradeDto upgradeDto = new PlanUpgradeDto(payment.getUserId(), payment.getPlanPurchased(), stripeSessionId);
         queueService.publishPlanUpgradeInfo(upgradeDto);
 
         try {
@@ -0,0 +1,15 @@
+package com.search_service.search_service.Dto;
+
+import lombok.Data;
+
+import java.util.Date;
+import java.util.List;
+
+@Data
+public class FileBulkUpdateEvent {
+    private String userId;
+    private List<String> fileIds;
+    private Boolean isStarred;
+    private Boolean isMovedToRecycleBin;
+    private Date modifiedAt;
+}
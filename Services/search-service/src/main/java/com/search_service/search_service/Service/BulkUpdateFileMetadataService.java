@@ -0,0 +1,58 @@
+package com.search_service.search_service.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.search_service.search_service.Dto.FileBulkUpdateEvent;
+import com.search_service.search_service.Model.FileMetadata;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkUpdateFileMetadataService {
+
+    private final ObjectMapper objectMapper;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final SearchService searchService;
+
+    @KafkaListener(topics = "file-metadata-bulk-update", groupId = "rag-pipeline-group")
+    public void listen(String message) throws Exception {
+        FileBulkUpdateEvent event = objectMapper.readValue(message, FileBulkUpdateEvent.class);
+
+        if (event.getFileIds() == null || event.getFileIds().isEmpty()) {
+            log.warn("Received bulk update without file ids for user: {}", event.getUserId());
+            return;
+        }
+
+        Document partial = Document.create();
+        if (event.getIsStarred() != null) {
+            partial.put("isStarred", event.getIsStarred());
+        }
+        if (event.getIsMovedToRecycleBin() != null) {
+            partial.put("isMovedToRecycleBin", event.getIsMovedToRecycleBin());
+        }
+        if (event.getModifiedAt() != null) {
+            partial.put("modifiedAt", event.getModifiedAt().getTime());
+        }
+
+        List<UpdateQuery> updates = event.getFileIds().stream()
+                // A file not indexed yet gets a stub holding only these fields; its full document
+                // replaces the stub when the metadata event is indexed, and the stub has no userId to match searches.
+                .map(id -> UpdateQuery.builder(id).withDocument(partial).withDocAsUpsert(true).build())
+                .toList();
+
+        elasticsearchOperations.bulkUpdate(updates, FileMetadata.class);
+        log.info("Applied bulk update to {} files for user: {}", updates.size(), event.getUserId());
+
+        if (event.getUserId() != null && !event.getUserId().isEmpty()) {
+            searchService.evictUserFileCache(event.getUserId());
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.search_service.search_service.Service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.search_service.search_service.Model.FileMetadata;
 import com.search_service.search_service.Repository.FileMetadataRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.StringRedisTemplate;
@@ -19,17 +21,26 @@ public class ConsumeFileMetadataService {
     private final FileMetadataRepository fileMetadataRepository;
     private final StringRedisTemplate redisTemplate;
     private final SearchService searchService;
+    private final Timer indexTimer;
     private static final String CONFIRMATION_KEY_PREFIX = "file:sync_confirm:";
 
     @Autowired
     public ConsumeFileMetadataService(ObjectMapper objectMapper,
                                       FileMetadataRepository fileMetadataRepository,
                                       StringRedisTemplate redisTemplate,
-                                      SearchService searchService) {
+                                      SearchService searchService,
+                                      MeterRegistry meterRegistry) {
         this.objectMapper = objectMapper;
         this.fileMetadataRepository = fileMetadataRepository;
         this.redisTemplate = redisTemplate;
         this.searchService = searchService;
+        // Registered once; the SLO buckets can be replaced with management.metrics.distribution.slo.search.index.
+        this.indexTimer = Timer.builder("search.index")
+                .description("Time to index one file's metadata in Elasticsearch")
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100),
+                        Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1))
+                .register(meterRegistry);
     }
 
 
@@ -45,7 +56,7 @@ public class ConsumeFileMetadataService {
                 fileMetadata.setProcessedAt(new Date());
             }
 
-            fileMetadataRepository.save(fileMetadata);
+            indexTimer.record(() -> fileMetadataRepository.save(fileMetadata));
             String fileId = fileMetadata.getId();
             log.info("Successfully saved metadata for file: {} with ID: {}", fileName, fileId);
 
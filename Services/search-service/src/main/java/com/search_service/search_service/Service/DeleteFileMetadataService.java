@@ -1,5 +1,6 @@
 package com.search_service.search_service.Service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.search_service.search_service.Repository.FileMetadataRepository;
 import lombok.RequiredArgsConstructor;
@@ -7,6 +8,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -28,4 +31,17 @@ public class DeleteFileMetadataService {
 
         }
     }
-}
\ No newline at end of file
+
+    @KafkaListener(topics = "file-metadata-delete-bulk", groupId = "rag-pipeline-group")
+    public void listenBulk(String message) {
+        try {
+            List<String> fileIds = objectMapper.readValue(message, new TypeReference<List<String>>() {});
+            fileMetadataRepository.deleteAllById(fileIds);
+            log.info("Successfully deleted metadata for {} files", fileIds.size());
+
+        } catch (Exception e) {
+            log.error("Error processing Kafka bulk delete message", e);
+
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.tags_generation_service.tags_generation_service.Controllers;
 
+import com.tags_generation_service.tags_generation_service.Dto.BulkStarRequest;
 import com.tags_generation_service.tags_generation_service.Exception.BusinessException; // Import
 import com.tags_generation_service.tags_generation_service.Exception.ResourceNotFoundException; // Import
+import com.tags_generation_service.tags_generation_service.Model.PurgeJob;
 import com.tags_generation_service.tags_generation_service.Service.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,25 +31,34 @@ public class FileControllers {
 
     @DeleteMapping("/MoveToRecycleBin")
     public ResponseEntity<Boolean> moveToRecycleBin(@RequestBody List<UUID> fileIds, @AuthenticationPrincipal Jwt jwt) {
-        Boolean response = moveToRecycleBinAndRestoreService.moveToRecycleBin(fileIds);
+        Boolean response = moveToRecycleBinAndRestoreService.moveToRecycleBin(fileIds, resolveUserId(jwt));
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/RestoreFiles")
     public ResponseEntity<Boolean> restoreFiles(@RequestBody List<UUID> fileIds, @AuthenticationPrincipal Jwt jwt) {
-        Boolean response = moveToRecycleBinAndRestoreService.RestoreFiles(fileIds);
+        Boolean response = moveToRecycleBinAndRestoreService.RestoreFiles(fileIds, resolveUserId(jwt));
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/star/{fileId}")
     public ResponseEntity<Boolean> updateStarStatus(@PathVariable UUID fileId, @RequestBody Boolean isStarred, @AuthenticationPrincipal Jwt jwt) {
-        Boolean success = starService.UpdateStar(fileId, isStarred);
+        Boolean success = starService.UpdateStar(fileId, isStarred, resolveUserId(jwt));
         if (!success) {
             throw new ResourceNotFoundException("File", "id", fileId);
         }
         return ResponseEntity.ok(true);
     }
 
+    @PostMapping("/star")
+    public ResponseEntity<List<UUID>> updateStarStatusBulk(@RequestBody BulkStarRequest request, @AuthenticationPrincipal Jwt jwt) {
+        if (request.getFileIds() == null || request.getFileIds().isEmpty()) {
+            throw new BusinessException("No files selected.");
+        }
+        List<UUID> updatedIds = starService.UpdateStars(request.getFileIds(), request.getIsStarred(), resolveUserId(jwt));
+        return ResponseEntity.ok(updatedIds);
+    }
+
     @PostMapping("/DownloadFiles")
     public ResponseEntity<byte[]> downloadFiles(@RequestBody List<UUID> fileIds, @AuthenticationPrincipal Jwt jwt) {
         if (fileIds == null || fileIds.isEmpty()) {
@@ -74,8 +85,24 @@ public class FileControllers {
     }
 
     @DeleteMapping("/PermanentlyDeleteFiles")
-    public ResponseEntity<Boolean> permanentlyDeleteFiles(@RequestBody List<UUID> fileIds, @AuthenticationPrincipal Jwt jwt) {
-        Boolean response = deletePermanently.DeleteFilePermanently(fileIds);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<PurgeJob> permanentlyDeleteFiles(@RequestBody List<UUID> fileIds, @AuthenticationPrincipal Jwt jwt) {
+        PurgeJob job = deletePermanently.DeleteFilePermanently(fileIds, resolveUserId(jwt));
+        if (job == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/PurgeJobs/{jobId}")
+    public ResponseEntity<PurgeJob> getPurgeJob(@PathVariable UUID jobId, @AuthenticationPrincipal Jwt jwt) {
+        return ResponseEntity.ok(deletePermanently.getPurgeJob(jobId, resolveUserId(jwt)));
+    }
+
+    private String resolveUserId(Jwt jwt) {
+        Object userId = jwt == null ? null : jwt.getClaims().get("userId");
+        if (userId == null) {
+            throw new BusinessException("Token has no userId claim.", HttpStatus.UNAUTHORIZED);
+        }
+        return userId.toString();
     }
-}
\ No newline at end of file
+}
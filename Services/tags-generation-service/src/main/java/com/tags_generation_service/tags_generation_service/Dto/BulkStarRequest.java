@@ -0,0 +1,16 @@
+package com.tags_generation_service.tags_generation_service.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStarRequest {
+    private List<UUID> fileIds;
+    private Boolean isStarred;
+}
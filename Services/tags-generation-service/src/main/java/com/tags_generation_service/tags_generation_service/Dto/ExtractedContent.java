@@ -0,0 +1,8 @@
+package com.tags_generation_service.tags_generation_service.Dto;
+
+/**
+ * Text pulled out of a document. {@code truncated} is set when the text stops
+ * at the character limit or is a sample of the rows. A parse that runs out of
+ * time fails instead of returning partial text.
+ */
+public record ExtractedContent(String text, boolean truncated) {}
@@ -0,0 +1,14 @@
+package com.tags_generation_service.tags_generation_service.Dto;
+
+/**
+ * Extraction the upload service's security scan already did, carried on the
+ * metadata request: either inline {@code text} or a gzip sidecar object at
+ * {@code sidecarKey}. {@link #hasContent()} is false when neither was sent
+ * and the file has to be downloaded and parsed here.
+ */
+public record ExtractionHandoff(String mimeType, String text, boolean truncated, String sidecarKey) {
+
+    public boolean hasContent() {
+        return (text != null && !text.isBlank()) || sidecarKey != null;
+    }
+}
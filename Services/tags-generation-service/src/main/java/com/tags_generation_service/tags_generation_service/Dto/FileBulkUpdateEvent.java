@@ -0,0 +1,26 @@
+package com.tags_generation_service.tags_generation_service.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Partial update applied to a set of files in the search index.
+ * Null flags are left untouched by the consumer.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileBulkUpdateEvent {
+    private String userId;
+    private List<UUID> fileIds;
+    private Boolean isStarred;
+    private Boolean isMovedToRecycleBin;
+    private Date modifiedAt;
+}
@@ -0,0 +1,10 @@
+package com.tags_generation_service.tags_generation_service.Dto;
+
+import java.util.List;
+
+/**
+ * Tags, categories and summary produced by the combined security-and-metadata
+ * LLM call. Sent with the metadata request so tags-generation can store them
+ * without calling the model again.
+ */
+public record MetadataAnalysis(List<String> tags, List<String> categories, String summary) {}
@@ -0,0 +1,7 @@
+package com.tags_generation_service.tags_generation_service.Dto;
+
+/**
+ * Change in a user's stored bytes, consumed by auth-service to keep its usage
+ * projection current. {@code eventId} lets the consumer drop redelivered events.
+ */
+public record StorageUsageEvent(String userId, long deltaBytes, String eventId) {}
@@ -1,5 +1,6 @@
 package com.tags_generation_service.tags_generation_service.Model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -55,7 +56,8 @@ public class FileMetadataPostgres {
     @Type(JsonBinaryType.class)
     private Map<String, Object> additionalMetadata;
 
-    @Column(name = "s3_location", unique = true)
+    // Unique among live rows only, see V6__file_metadata_live_s3_location_unique.sql.
+    @Column(name = "s3_location")
     private String s3Location;
 
     @Column(name = "thumbnail_s3_location", columnDefinition = "TEXT")
@@ -77,7 +79,16 @@ public class FileMetadataPostgres {
     @Temporal(TemporalType.TIMESTAMP)
     private Date modifiedAt;
 
+    // When the file was moved to the recycle bin; the sweeper expires entries on it.
+    @Column(name = "recycledAt")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date recycledAt;
+
     @Column(name = "email", columnDefinition = "TEXT")
     private String email;
 
+    @JsonIgnore
+    @Column(name = "purgeJobId")
+    private UUID purgeJobId;
+
 }
\ No newline at end of file
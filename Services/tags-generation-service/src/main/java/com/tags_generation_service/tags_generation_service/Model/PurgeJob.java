@@ -0,0 +1,62 @@
+package com.tags_generation_service.tags_generation_service.Model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * A permanent-delete request. Files belonging to the job carry its id in
+ * {@code file_metadata.purge_job_id} until the worker has removed them, so
+ * a job can be resumed from the table alone after a restart.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "purge_jobs")
+public class PurgeJob {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "userId", columnDefinition = "TEXT")
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private PurgeJobStatus status;
+
+    @Column(name = "totalFiles")
+    private Integer totalFiles;
+
+    @Column(name = "deletedFiles")
+    private Integer deletedFiles;
+
+    @Column(name = "attempts")
+    private Integer attempts;
+
+    @Column(name = "lastError", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "createdAt")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdAt;
+
+    @Column(name = "heartbeatAt")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date heartbeatAt;
+
+    /** A PENDING job is not claimed before this time; set when an attempt fails. */
+    @Column(name = "nextAttemptAt")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date nextAttemptAt;
+
+    @Column(name = "completedAt")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date completedAt;
+}
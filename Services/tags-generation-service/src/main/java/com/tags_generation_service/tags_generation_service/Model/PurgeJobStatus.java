@@ -0,0 +1,8 @@
+package com.tags_generation_service.tags_generation_service.Model;
+
+public enum PurgeJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -1,11 +1,15 @@
 package com.tags_generation_service.tags_generation_service.Repository;
 
 import com.tags_generation_service.tags_generation_service.Model.FileMetadataPostgres;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,17 +17,95 @@ import java.util.UUID;
 @Repository
 public interface FileMetadataPostgresRepository extends JpaRepository<FileMetadataPostgres, UUID> {
 
-    Optional<FileMetadataPostgres> findByS3Location(String s3Location);
+    // s3_location is only unique among live rows (V6).
+    Optional<FileMetadataPostgres> findByS3LocationAndPurgeJobIdIsNull(String s3Location);
 
     @Modifying
-    @Query("UPDATE FileMetadataPostgres f SET f.thumbnailS3Location = :thumbnailUrl WHERE f.s3Location = :s3Location")
+    @Query("UPDATE FileMetadataPostgres f SET f.thumbnailS3Location = :thumbnailUrl WHERE f.s3Location = :s3Location AND f.purgeJobId IS NULL")
     int updateThumbnailUrlByS3Location(@Param("s3Location") String s3Location, @Param("thumbnailUrl") String thumbnailUrl);
 
-    FileMetadataPostgres findByFileName(String fileName);
+    // Keyed on uq_file_metadata_user_file_name, which skips rows under purge: a re-upload of a file that is
+    // being purged gets a fresh row instead of reviving the one the worker is deleting. A re-uploaded file
+    // is live again, so it also leaves the recycle bin.
+    @Transactional
+    @Query(value = "INSERT INTO file_metadata (id, file_name, file_type, tags, categories, summary, s3_location, " +
+            "user_id, email, file_size, processed_at, modified_at, is_starred, is_moved_to_recycle_bin) " +
+            "VALUES (:id, :fileName, :fileType, CAST(:tags AS jsonb), CAST(:categories AS jsonb), :summary, :s3Location, " +
+            ":userId, :email, :fileSize, now(), now(), false, false) " +
+            "ON CONFLICT (user_id, file_name) WHERE purge_job_id IS NULL DO UPDATE SET " +
+            "file_type = EXCLUDED.file_type, tags = EXCLUDED.tags, categories = EXCLUDED.categories, summary = EXCLUDED.summary, " +
+            "file_size = EXCLUDED.file_size, modified_at = EXCLUDED.modified_at, s3_location = EXCLUDED.s3_location, " +
+            "is_moved_to_recycle_bin = false, recycled_at = NULL " +
+            "RETURNING *", nativeQuery = true)
+    FileMetadataPostgres upsertMetadata(@Param("id") UUID id,
+                                        @Param("fileName") String fileName,
+                                        @Param("fileType") String fileType,
+                                        @Param("tags") String tagsJson,
+                                        @Param("categories") String categoriesJson,
+                                        @Param("summary") String summary,
+                                        @Param("s3Location") String s3Location,
+                                        @Param("userId") String userId,
+                                        @Param("email") String email,
+                                        @Param("fileSize") Long fileSize);
 
-    @Query(value = "SELECT * FROM file_metadata WHERE tags @> to_jsonb(ARRAY[:tag]::text[])", nativeQuery = true)
+    // Trashing a file that is already in the recycle bin keeps its original recycled_at.
+    @Query(value = "UPDATE file_metadata SET is_moved_to_recycle_bin = :recycled, modified_at = now(), " +
+            "recycled_at = CASE WHEN :recycled THEN COALESCE(recycled_at, now()) END " +
+            "WHERE id = ANY(:ids) AND user_id = :userId AND purge_job_id IS NULL RETURNING id", nativeQuery = true)
+    List<UUID> updateRecycleBinStatus(@Param("ids") UUID[] ids, @Param("userId") String userId, @Param("recycled") boolean recycled);
+
+    @Query(value = "UPDATE file_metadata SET is_starred = :starred " +
+            "WHERE id = ANY(:ids) AND user_id = :userId AND purge_job_id IS NULL RETURNING id", nativeQuery = true)
+    List<UUID> updateStarStatus(@Param("ids") UUID[] ids, @Param("userId") String userId, @Param("starred") boolean starred);
+
+    @Query(value = "UPDATE file_metadata SET purge_job_id = :jobId " +
+            "WHERE id = ANY(:ids) AND user_id = :userId AND purge_job_id IS NULL RETURNING id", nativeQuery = true)
+    List<UUID> markForPurge(@Param("ids") UUID[] ids, @Param("userId") String userId, @Param("jobId") UUID jobId);
+
+    List<FileMetadataPostgres> findByPurgeJobId(UUID purgeJobId, Pageable pageable);
+
+    // Rows trashed by a replica that does not write recycled_at yet; the sweeper stamps them so they can expire.
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE file_metadata SET recycled_at = now() " +
+            "WHERE is_moved_to_recycle_bin = true AND purge_job_id IS NULL AND recycled_at IS NULL", nativeQuery = true)
+    int stampUnstampedRecycled();
+
+    // Live rows that may share an object key with rows being purged; callers match keys exactly.
+    @Query(value = "SELECT s3_location AS s3Location, thumbnail_s3_location AS thumbnailS3Location FROM file_metadata " +
+            "WHERE purge_job_id IS NULL AND user_id = ANY(:userIds) AND file_name = ANY(:fileNames)", nativeQuery = true)
+    List<StoredObjects> findLiveObjects(@Param("userIds") String[] userIds, @Param("fileNames") String[] fileNames);
+
+    @Query(value = "SELECT id AS id, user_id AS userId FROM file_metadata " +
+            "WHERE is_moved_to_recycle_bin = true AND purge_job_id IS NULL AND user_id IS NOT NULL AND recycled_at < :cutoff " +
+            "AND abs(hashtext(user_id)::bigint) % :shardCount = :shard " +
+            "ORDER BY recycled_at LIMIT :limit", nativeQuery = true)
+    List<ExpiredFile> findExpiredInRecycleBin(@Param("cutoff") Date cutoff,
+                                              @Param("shard") int shard,
+                                              @Param("shardCount") int shardCount,
+                                              @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM file_metadata WHERE id = ANY(:ids)", nativeQuery = true)
+    int deleteAllByIdIn(@Param("ids") UUID[] ids);
+
+    // Rows tagged with a purge job are already gone for the user; the worker just hasn't removed them yet.
+    List<FileMetadataPostgres> findAllByIdInAndPurgeJobIdIsNull(Collection<UUID> ids);
+
+    @Query(value = "SELECT * FROM file_metadata WHERE tags @> to_jsonb(ARRAY[:tag]::text[]) AND purge_job_id IS NULL", nativeQuery = true)
     List<FileMetadataPostgres> findByTag(@Param("tag") String tag);
 
-    @Query(value = "SELECT * FROM file_metadata WHERE categories @> to_jsonb(ARRAY[:category]::text[])", nativeQuery = true)
+    @Query(value = "SELECT * FROM file_metadata WHERE categories @> to_jsonb(ARRAY[:category]::text[]) AND purge_job_id IS NULL", nativeQuery = true)
     List<FileMetadataPostgres> findByCategory(@Param("category") String category);
-}
\ No newline at end of file
+
+    interface StoredObjects {
+        String getS3Location();
+        String getThumbnailS3Location();
+    }
+
+    interface ExpiredFile {
+        UUID getId();
+        String getUserId();
+    }
+}
@@ -0,0 +1,57 @@
+package com.tags_generation_service.tags_generation_service.Repository;
+
+import com.tags_generation_service.tags_generation_service.Model.PurgeJob;
+import com.tags_generation_service.tags_generation_service.Model.PurgeJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface PurgeJobRepository extends JpaRepository<PurgeJob, UUID> {
+
+    Optional<PurgeJob> findByIdAndUserId(UUID id, String userId);
+
+    // SKIP LOCKED lets several replicas poll without handing the same job out twice;
+    // RUNNING jobs whose heartbeat went stale belong to a dead worker and are taken over.
+    // A PENDING job that failed before waits out its backoff.
+    @Transactional
+    @Query(value = "UPDATE purge_jobs SET status = 'RUNNING', heartbeat_at = now(), attempts = attempts + 1 " +
+            "WHERE id = (SELECT id FROM purge_jobs " +
+            "WHERE (status = 'PENDING' AND (next_attempt_at IS NULL OR next_attempt_at <= now())) " +
+            "OR (status = 'RUNNING' AND heartbeat_at < :staleBefore) " +
+            "ORDER BY created_at LIMIT 1 FOR UPDATE SKIP LOCKED) RETURNING *", nativeQuery = true)
+    Optional<PurgeJob> claimNextJob(@Param("staleBefore") Date staleBefore);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PurgeJob j SET j.deletedFiles = j.deletedFiles + :count, j.heartbeatAt = :now WHERE j.id = :id")
+    int recordProgress(@Param("id") UUID id, @Param("count") int count, @Param("now") Date now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PurgeJob j SET j.heartbeatAt = :now WHERE j.id = :id")
+    int heartbeat(@Param("id") UUID id, @Param("now") Date now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PurgeJob j SET j.status = com.tags_generation_service.tags_generation_service.Model.PurgeJobStatus.COMPLETED, " +
+            "j.completedAt = :now, j.heartbeatAt = :now, j.lastError = null WHERE j.id = :id")
+    int markCompleted(@Param("id") UUID id, @Param("now") Date now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PurgeJob j SET j.status = :status, j.lastError = :error, j.heartbeatAt = :now WHERE j.id = :id")
+    int updateStatus(@Param("id") UUID id, @Param("status") PurgeJobStatus status, @Param("error") String error, @Param("now") Date now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PurgeJob j SET j.status = com.tags_generation_service.tags_generation_service.Model.PurgeJobStatus.PENDING, " +
+            "j.lastError = :error, j.nextAttemptAt = :nextAttemptAt, j.heartbeatAt = :now WHERE j.id = :id")
+    int scheduleRetry(@Param("id") UUID id, @Param("error") String error, @Param("nextAttemptAt") Date nextAttemptAt, @Param("now") Date now);
+}
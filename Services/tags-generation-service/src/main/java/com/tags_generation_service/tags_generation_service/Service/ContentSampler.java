@@ -0,0 +1,194 @@
+package com.tags_generation_service.tags_generation_service.Service;
+
+import org.apache.tika.exception.WriteLimitReachedException;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SAX handler that turns a document of any length into a fixed-size excerpt:
+ * the heading outline, the beginning, evenly spaced windows from the middle
+ * and the end. Memory is bounded by the budget, not by the document: windows
+ * are kept by repeatedly halving a sample of fixed-size blocks, and the end is
+ * a ring buffer. Documents that fit in the budget are returned verbatim.
+ *
+ * <p>Methods are synchronized because an excerpt may be rendered from a parse
+ * that is being cancelled on another thread.
+ */
+public class ContentSampler extends DefaultHandler {
+
+    private static final int MAX_HEADINGS = 20;
+    private static final int MAX_HEADING_LENGTH = 120;
+    private static final int MAX_WINDOWS = 4;
+
+    private final int budget;
+    private final long maxScanChars;
+    private final int outlineBudget;
+    private final int headBudget;
+    private final int tailBudget;
+    private final int windowSize;
+
+    private final StringBuilder head = new StringBuilder();
+    private final char[] tail;
+    private final List<String> headings = new ArrayList<>();
+    private final List<Block> windows = new ArrayList<>();
+
+    private StringBuilder currentHeading;
+    private StringBuilder currentBlock = new StringBuilder();
+    private long blockIndex;
+    private long stride = 1;
+    private long scanned;
+    private boolean lastWasSpace = true;
+
+    public ContentSampler(int budget, long maxScanChars) {
+        this.budget = budget;
+        this.maxScanChars = maxScanChars;
+        this.outlineBudget = budget * 15 / 100;
+        this.tailBudget = budget * 20 / 100;
+        this.windowSize = Math.max(1, budget * 30 / 100 / MAX_WINDOWS);
+        this.headBudget = budget - outlineBudget - tailBudget - windowSize * MAX_WINDOWS;
+        this.tail = new char[Math.max(1, tailBudget)];
+    }
+
+    @Override
+    public synchronized void startElement(String uri, String localName, String qName, Attributes atts) {
+        if (isHeading(localName)) {
+            currentHeading = new StringBuilder();
+        }
+    }
+
+    @Override
+    public synchronized void endElement(String uri, String localName, String qName) {
+        if (isHeading(localName) && currentHeading != null) {
+            String heading = currentHeading.toString().trim();
+            if (!heading.isEmpty() && headings.size() < MAX_HEADINGS) {
+                headings.add(heading.length() > MAX_HEADING_LENGTH ? heading.substring(0, MAX_HEADING_LENGTH) : heading);
+            }
+            currentHeading = null;
+        }
+        append(' ');
+    }
+
+    @Override
+    public synchronized void characters(char[] ch, int start, int length) throws SAXException {
+        for (int i = start; i < start + length; i++) {
+            char c = Character.isWhitespace(ch[i]) ? ' ' : ch[i];
+            if (currentHeading != null && currentHeading.length() < MAX_HEADING_LENGTH) {
+                currentHeading.append(c);
+            }
+            append(c);
+        }
+        if (scanned >= maxScanChars) {
+            throw new WriteLimitReachedException((int) Math.min(Integer.MAX_VALUE, maxScanChars));
+        }
+    }
+
+    @Override
+    public synchronized void ignorableWhitespace(char[] ch, int start, int length) {
+        append(' ');
+    }
+
+    /** True when the document did not fit in the budget and the excerpt is a sample. */
+    public synchronized boolean isSampled() {
+        return scanned > budget;
+    }
+
+    public synchronized String toExcerpt() {
+        if (!isSampled()) {
+            return head.toString().trim();
+        }
+
+        StringBuilder out = new StringBuilder(budget + 256);
+        if (!headings.isEmpty()) {
+            out.append("--- Document outline ---\n");
+            int used = 0;
+            for (String heading : headings) {
+                if (used + heading.length() > outlineBudget) break;
+                out.append("- ").append(heading).append('\n');
+                used += heading.length();
+            }
+        }
+
+        out.append("--- Beginning ---\n").append(head.substring(0, Math.min(head.length(), headBudget)).trim()).append('\n');
+
+        long tailStart = scanned - Math.min(scanned, tail.length);
+        for (Block window : pickWindows(tailStart)) {
+            out.append("--- Excerpt at ~").append(window.offset * 100 / scanned).append("% ---\n")
+                    .append(window.text.trim()).append('\n');
+        }
+
+        out.append("--- End ---\n").append(tailText().trim());
+        return out.toString();
+    }
+
+    private void append(char c) {
+        boolean space = c == ' ';
+        if (space && lastWasSpace) {
+            return;
+        }
+        lastWasSpace = space;
+
+        if (head.length() < budget) {
+            head.append(c);
+        }
+        tail[(int) (scanned % tail.length)] = c;
+
+        currentBlock.append(c);
+        if (currentBlock.length() == windowSize) {
+            keepBlock(new Block(scanned + 1 - windowSize, currentBlock.toString()));
+            currentBlock = new StringBuilder(windowSize);
+        }
+        scanned++;
+    }
+
+    // Keeps every stride-th block; when the sample fills up the stride doubles and every other block is dropped,
+    // so the kept blocks stay evenly spread over whatever has been read so far.
+    private void keepBlock(Block block) {
+        if (blockIndex++ % stride != 0) {
+            return;
+        }
+        windows.add(block);
+        if (windows.size() >= MAX_WINDOWS * 4) {
+            List<Block> halved = new ArrayList<>(windows.size() / 2);
+            for (int i = 0; i < windows.size(); i += 2) {
+                halved.add(windows.get(i));
+            }
+            windows.clear();
+            windows.addAll(halved);
+            stride *= 2;
+        }
+    }
+
+    private List<Block> pickWindows(long tailStart) {
+        List<Block> middle = windows.stream()
+                .filter(b -> b.offset >= headBudget && b.offset + windowSize <= tailStart)
+                .toList();
+        if (middle.size() <= MAX_WINDOWS) {
+            return middle;
+        }
+        List<Block> picked = new ArrayList<>(MAX_WINDOWS);
+        for (int i = 0; i < MAX_WINDOWS; i++) {
+            picked.add(middle.get((int) ((long) i * middle.size() / MAX_WINDOWS + middle.size() / (2L * MAX_WINDOWS))));
+        }
+        return picked;
+    }
+
+    private String tailText() {
+        int length = (int) Math.min(scanned, tail.length);
+        StringBuilder out = new StringBuilder(length);
+        for (long i = scanned - length; i < scanned; i++) {
+            out.append(tail[(int) (i % tail.length)]);
+        }
+        return out.toString();
+    }
+
+    private static boolean isHeading(String localName) {
+        return localName != null && localName.length() == 2 && localName.charAt(0) == 'h'
+                && localName.charAt(1) >= '1' && localName.charAt(1) <= '6';
+    }
+
+    private record Block(long offset, String text) {}
+}
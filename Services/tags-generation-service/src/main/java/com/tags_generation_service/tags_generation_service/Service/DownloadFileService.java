@@ -24,7 +24,7 @@ public class DownloadFileService {
     private final FileMetadataPostgresRepository fileMetadataPostgresRepository;
 
     public byte[] downloadAndZipFiles(List<UUID> fileIds) throws IOException {
-        List<FileMetadataPostgres> filesToDownload = fileMetadataPostgresRepository.findAllById(fileIds);
+        List<FileMetadataPostgres> filesToDownload = fileMetadataPostgresRepository.findAllByIdInAndPurgeJobIdIsNull(fileIds);
 
         if (filesToDownload.isEmpty()) {
             return new byte[0];
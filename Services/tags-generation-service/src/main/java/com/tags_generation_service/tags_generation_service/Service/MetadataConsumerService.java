@@ -1,6 +1,8 @@
 package com.tags_generation_service.tags_generation_service.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tags_generation_service.tags_generation_service.Dto.ExtractionHandoff;
+import com.tags_generation_service.tags_generation_service.Dto.MetadataAnalysis;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -18,7 +20,7 @@ public class MetadataConsumerService {
 
     @KafkaListener(topics = "file-metadata-requests", groupId = "rag-pipeline-group")
     public void listen(String message) throws Exception {
-        log.info("Received message from Kafka: {}", message);
+        log.info("Received message from Kafka ({} chars)", message.length());
             Map<String, Object> map = objectMapper.readValue(message, Map.class);
 
             String fileName = (String) map.get("fileName");
@@ -27,10 +29,18 @@ public class MetadataConsumerService {
             String userId = (String) map.get("userId");
             Long fileSize = ((Number) map.get("fileSize")).longValue();
             String email = (String) map.get("email");
+            ExtractionHandoff extraction = new ExtractionHandoff(
+                    (String) map.get("mimeType"),
+                    (String) map.get("extractedText"),
+                    Boolean.TRUE.equals(map.get("extractedTruncated")),
+                    (String) map.get("extractionKey"));
+            MetadataAnalysis analysis = map.get("analysis") != null
+                    ? objectMapper.convertValue(map.get("analysis"), MetadataAnalysis.class)
+                    : null;
 
             log.info("Processing file metadata from topic 'file-metadata-requests': {}", fileName);
 
-            metadataProcessingService.processMetadataRequest(fileName, fileType, s3Location, userId, fileSize, email);
+            metadataProcessingService.processMetadataRequest(fileName, fileType, s3Location, userId, fileSize, email, extraction, analysis);
 
     }
 }
\ No newline at end of file
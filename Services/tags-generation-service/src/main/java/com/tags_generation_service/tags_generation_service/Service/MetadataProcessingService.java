@@ -1,12 +1,16 @@
 package com.tags_generation_service.tags_generation_service.Service;
 
+import com.tags_generation_service.tags_generation_service.Dto.ExtractedContent;
+import com.tags_generation_service.tags_generation_service.Dto.ExtractionHandoff;
+import com.tags_generation_service.tags_generation_service.Dto.MetadataAnalysis;
+import com.tags_generation_service.tags_generation_service.Dto.PreparedImage;
+import com.tags_generation_service.tags_generation_service.Exception.InvalidLlmResponseException;
+import com.tags_generation_service.tags_generation_service.config.LangChainConfig;
 import com.tags_generation_service.tags_generation_service.Model.FileMetadataPostgres;
-import com.tags_generation_service.tags_generation_service.Repository.FileMetadataPostgresRepository;
 import dev.langchain4j.data.message.*;
 import dev.langchain4j.model.chat.ChatLanguageModel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.tika.Tika;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
@@ -16,6 +20,7 @@ import jakarta.annotation.PostConstruct;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
@@ -26,12 +31,19 @@ public class MetadataProcessingService {
     private final S3Service s3Service;
     private final PostgresService postgresService;
     private final QueueService queueService;
-    private final FileMetadataPostgresRepository repository;
+    private final ContentExtractionService contentExtractionService;
+    private final ImagePreprocessingService imagePreprocessingService;
+    private final MediaSamplingService mediaSamplingService;
+    private final StructuredOutputParser structuredOutputParser;
 
-    private static final int MAX_CONTENT_LENGTH = 3000;
-    private static final String TRUNCATION_INDICATOR = "...";
+    private static final String SAMPLE_NOTE =
+            "(The document is long; this is a sample of its outline, beginning, evenly spaced excerpts and end.)\n";
 
-    private final Tika tika = new Tika();
+    private static final String VIDEO_COLLAGE_NOTE =
+            "The image is a grid of frames sampled evenly from a video; describe the video as a whole.\n";
+
+    @Value("${media.head-bytes:1048576}")
+    private long mediaHeadBytes;
 
     @Value("classpath:Prompts/metadata-analysis-text.txt")
     private Resource textPromptResource;
@@ -64,18 +76,53 @@ public class MetadataProcessingService {
             String s3Location,
             String userId,
             Long fileSize,
-            String email
+            String email,
+            ExtractionHandoff extraction,
+            MetadataAnalysis precomputed
     ) {
-        try (InputStream fileStream = s3Service.downloadFile(s3Location)) {
+        if (precomputed != null) {
+            // The upload service ran the combined security-and-metadata call; store its result as-is.
+            if (extraction != null && extraction.sidecarKey() != null) {
+                s3Service.deleteCompressed(extraction.sidecarKey());
+            }
+            try {
+                Map<String, Object> analysis = new HashMap<>();
+                analysis.put("tags", precomputed.tags());
+                analysis.put("categories", precomputed.categories());
+                analysis.put("summary", precomputed.summary());
+                saveMetadata(fileName, fileType, s3Location, userId, fileSize, email, analysis);
+            } catch (Exception e) {
+                log.error("Saving precomputed metadata failed for file {}", fileName, e);
+            }
+            return;
+        }
 
+        try {
             ChatLanguageModel llm = selectLLM(fileType);
             Map<String, Object> analysis;
-
-            if ("image".equalsIgnoreCase(fileType)) {
-                analysis = analyzeImage(llm, fileStream);
+            Optional<ExtractedContent> handedOff = "video".equalsIgnoreCase(fileType) || "image".equalsIgnoreCase(fileType)
+                    ? Optional.empty()
+                    : resolveHandoff(extraction, fileName);
+
+            if ("video".equalsIgnoreCase(fileType)) {
+                analysis = analyzeVideo(llm, fileName, s3Location);
+            } else if (handedOff.isPresent()) {
+                // The upload service's security scan already extracted this file; no download or parse needed.
+                String documentType = extraction.mimeType() != null
+                        ? fileType + " (" + extraction.mimeType() + ")"
+                        : fileType;
+                analysis = analyzeDocument(llm, handedOff.get(), documentType);
+            } else if ("audio".equalsIgnoreCase(fileType)) {
+                analysis = analyzeMediaMetadata(llm, fileName, fileType, s3Location);
             } else {
-                String content = extractContent(fileStream);
-                analysis = analyzeDocument(llm, content, fileType);
+                try (InputStream fileStream = s3Service.downloadFile(s3Location)) {
+                    if ("image".equalsIgnoreCase(fileType)) {
+                        analysis = analyzeImage(llm, imagePreprocessingService.prepare(fileStream), systemPromptImage);
+                    } else {
+                        ExtractedContent content = contentExtractionService.sample(fileStream, fileName);
+                        analysis = analyzeDocument(llm, content, fileType);
+                    }
+                }
             }
 
             saveMetadata(fileName, fileType, s3Location, userId, fileSize, email, analysis);
@@ -94,86 +141,99 @@ public class MetadataProcessingService {
             Long fileSize,
             String email,
             Map<String, Object> analysis
-    ) {
+    ) throws Exception {
         List<String> tags = safeList(analysis.get("tags"));
         List<String> categories = safeList(analysis.get("categories"));
-        String summary = Objects.toString(analysis.get("summary"));
-
-        FileMetadataPostgres metadata =
-                Optional.ofNullable(repository.findByFileName(fileName))
-                        .map(existing -> {
-                            existing.setTags(tags);
-                            existing.setCategories(categories);
-                            existing.setSummary(summary);
-                            existing.setFileSize(fileSize);
-                            existing.setModifiedAt(new Date());
-                            existing.setS3Location(s3Location);
-                            return existing;
-                        })
-                        .orElse(FileMetadataPostgres.builder()
-                                .fileName(fileName)
-                                .fileType(fileType)
-                                .tags(tags)
-                                .categories(categories)
-                                .summary(summary)
-                                .s3Location(s3Location)
-                                .userId(userId)
-                                .email(email)
-                                .fileSize(fileSize)
-                                .processedAt(new Date())
-                                .isStarred(false)
-                                .isMovedToRecycleBin(false)
-                                .build());
-
-        postgresService.saveOrUpdateMetadata(metadata);
-        queueService.publishFileRequest(metadata);
+        String summary = Objects.toString(analysis.get("summary"), null);
+
+        FileMetadataPostgres metadata = FileMetadataPostgres.builder()
+                .fileName(fileName)
+                .fileType(fileType)
+                .tags(tags)
+                .categories(categories)
+                .summary(summary)
+                .s3Location(s3Location)
+                .userId(userId)
+                .email(email)
+                .fileSize(fileSize)
+                .build();
+
+        FileMetadataPostgres saved = postgresService.upsertMetadata(metadata);
+        queueService.publishFileRequest(saved);
     }
 
 
-    private Map<String, Object> analyzeDocument(ChatLanguageModel llm, String content, String fileType) {
-        String truncated = truncate(content);
-        String prompt = String.format(systemPromptText, fileType, truncated);
-        return parseResponse(llm.generate(prompt));
+    private Optional<ExtractedContent> resolveHandoff(ExtractionHandoff extraction, String fileName) {
+        if (extraction == null || !extraction.hasContent()) {
+            return Optional.empty();
+        }
+        if (extraction.sidecarKey() == null) {
+            return Optional.of(new ExtractedContent(extraction.text(), extraction.truncated()));
+        }
+        try {
+            String text = s3Service.consumeCompressedText(extraction.sidecarKey());
+            return Optional.of(new ExtractedContent(text, extraction.truncated()));
+        } catch (Exception e) {
+            log.warn("Extraction sidecar {} for {} unavailable, extracting from the file instead",
+                    extraction.sidecarKey(), fileName, e);
+            return Optional.empty();
+        }
     }
 
-    private Map<String, Object> analyzeImage(ChatLanguageModel llm, InputStream stream) throws Exception {
-        byte[] bytes = stream.readAllBytes();
-        String base64 = Base64.getEncoder().encodeToString(bytes);
+    private Map<String, Object> analyzeDocument(ChatLanguageModel llm, ExtractedContent content, String fileType) {
+        String text = content.truncated() ? SAMPLE_NOTE + content.text() : content.text();
+        String prompt = String.format(systemPromptText, fileType, text);
+        return generateMetadata(() -> llm.generate(prompt));
+    }
 
+    private Map<String, Object> analyzeImage(ChatLanguageModel llm, PreparedImage image, String prompt) {
         UserMessage message = UserMessage.from(
-                ImageContent.from(base64, "image/*"),
-                TextContent.from(systemPromptImage)
+                ImageContent.from(image.base64(), image.mimeType()),
+                TextContent.from(prompt)
         );
 
-        return parseResponse(llm.generate(message).content().text());
+        return generateMetadata(() -> llm.generate(message).content().text());
     }
 
-
-    private ChatLanguageModel selectLLM(String fileType) {
-        return Optional.ofNullable(specializedModels.get(fileType))
-                .orElseGet(() -> specializedModels.get("default"));
+    // Keyframes are decoded straight from ranged S3 reads; the full video is never downloaded.
+    private Map<String, Object> analyzeVideo(ChatLanguageModel llm, String fileName, String s3Location)
+            throws Exception {
+        Optional<PreparedImage> collage;
+        try (S3RangeChannel channel = s3Service.openRangeChannel(s3Location)) {
+            collage = mediaSamplingService.keyframeCollage(channel, fileName);
+        }
+        if (collage.isPresent()) {
+            return analyzeImage(llm, collage.get(), VIDEO_COLLAGE_NOTE + systemPromptImage);
+        }
+        return analyzeMediaMetadata(llm, fileName, "video", s3Location);
     }
 
-    private String extractContent(InputStream stream) throws Exception {
-        return tika.parseToString(stream);
+    private Map<String, Object> analyzeMediaMetadata(
+            ChatLanguageModel llm, String fileName, String fileType, String s3Location) throws Exception {
+        try (InputStream head = s3Service.downloadHead(s3Location, mediaHeadBytes)) {
+            ExtractedContent content = contentExtractionService.describeMedia(head, fileName);
+            if (content.text().isBlank()) {
+                log.info("No metadata found in {} file {}, tagging by name only", fileType, fileName);
+                content = new ExtractedContent("File name: " + fileName, false);
+            }
+            return analyzeDocument(llm, content, fileType);
+        }
     }
 
-    private String truncate(String content) {
-        return content.length() <= MAX_CONTENT_LENGTH
-                ? content
-                : content.substring(0, MAX_CONTENT_LENGTH) + TRUNCATION_INDICATOR;
+
+    private ChatLanguageModel selectLLM(String fileType) {
+        return Optional.ofNullable(specializedModels.get(fileType))
+                .orElseGet(() -> specializedModels.get("default"));
     }
 
-    private Map<String, Object> parseResponse(String response) {
+    // A response that still breaks the schema after the capped retries is stored untagged rather than dropped,
+    // so the upload still gets its confirmation.
+    private Map<String, Object> generateMetadata(Supplier<String> call) {
         Map<String, Object> result = new HashMap<>();
-
-        for (String line : response.split("\n")) {
-            if (line.startsWith("TAGS:"))
-                result.put("tags", Arrays.asList(line.substring(5).split(",\\s*")));
-            else if (line.startsWith("CATEGORIES:"))
-                result.put("categories", Arrays.asList(line.substring(11).split(",\\s*")));
-            else if (line.startsWith("SUMMARY:"))
-                result.put("summary", line.substring(8).trim());
+        try {
+            result.putAll(structuredOutputParser.generate(call, LangChainConfig.METADATA_SCHEMA));
+        } catch (InvalidLlmResponseException e) {
+            log.error("LLM metadata unusable after retries: {}", e.getMessage());
         }
 
         result.putIfAbsent("tags", List.of("untagged"));
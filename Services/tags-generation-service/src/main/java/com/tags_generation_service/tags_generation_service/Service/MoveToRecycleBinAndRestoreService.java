@@ -1,63 +1,55 @@
 package com.tags_generation_service.tags_generation_service.Service;
 
-import com.tags_generation_service.tags_generation_service.Model.FileMetadataPostgres;
+import com.tags_generation_service.tags_generation_service.Dto.FileBulkUpdateEvent;
 import com.tags_generation_service.tags_generation_service.Repository.FileMetadataPostgresRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
+@Slf4j
 @RequiredArgsConstructor
 @Service
 public class MoveToRecycleBinAndRestoreService {
 
     private final FileMetadataPostgresRepository fileMetadataPostgresRepository;
     private final QueueService queueService;
-    @Transactional
-    public Boolean moveToRecycleBin(List<UUID> fileIds) {
-        if (fileIds == null || fileIds.isEmpty()) {
-            return false;
-        }
-
-        List<FileMetadataPostgres> existingFiles = new ArrayList<>();
-        fileMetadataPostgresRepository.findAllById(fileIds).forEach(existingFiles::add);
 
-        if (existingFiles.isEmpty()) {
-            return false;
-        }
-
-        for (FileMetadataPostgres file : existingFiles) {
-            file.setIsMovedToRecycleBin(true);
-            queueService.publishFileRequest(file);
-        }
-
-        fileMetadataPostgresRepository.saveAll(existingFiles);
-
-        return true;
+    @Transactional
+    public Boolean moveToRecycleBin(List<UUID> fileIds, String userId) {
+        return updateRecycleBinStatus(fileIds, userId, true);
     }
 
     @Transactional
-    public Boolean RestoreFiles(List<UUID> fileIds) {
+    public Boolean RestoreFiles(List<UUID> fileIds, String userId) {
+        return updateRecycleBinStatus(fileIds, userId, false);
+    }
+
+    // One UPDATE ... RETURNING for the whole selection, then one search-sync event for the ids it touched.
+    private Boolean updateRecycleBinStatus(List<UUID> fileIds, String userId, boolean recycled) {
         if (fileIds == null || fileIds.isEmpty()) {
             return false;
         }
 
-        List<FileMetadataPostgres> existingFiles = new ArrayList<>();
-        fileMetadataPostgresRepository.findAllById(fileIds).forEach(existingFiles::add);
+        List<UUID> updatedIds = fileMetadataPostgresRepository.updateRecycleBinStatus(
+                fileIds.toArray(UUID[]::new), userId, recycled);
 
-        if (existingFiles.isEmpty()) {
+        if (updatedIds.isEmpty()) {
+            log.warn("No files of user {} matched the provided IDs", userId);
             return false;
         }
 
-        for (FileMetadataPostgres file : existingFiles) {
-            file.setIsMovedToRecycleBin(false);
-            queueService.publishFileRequest(file);
-        }
-
-        fileMetadataPostgresRepository.saveAll(existingFiles);
+        queueService.publishBulkUpdate(FileBulkUpdateEvent.builder()
+                .userId(userId)
+                .fileIds(updatedIds)
+                .isMovedToRecycleBin(recycled)
+                .modifiedAt(new Date())
+                .build());
 
+        log.info("Set isMovedToRecycleBin={} on {} files of user {}", recycled, updatedIds.size(), userId);
         return true;
     }
 }
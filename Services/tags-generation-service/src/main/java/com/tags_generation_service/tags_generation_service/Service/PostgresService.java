@@ -1,5 +1,7 @@
 package com.tags_generation_service.tags_generation_service.Service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tags_generation_service.tags_generation_service.Model.FileMetadataPostgres;
 import com.tags_generation_service.tags_generation_service.Repository.FileMetadataPostgresRepository;
 import lombok.RequiredArgsConstructor;
@@ -7,15 +9,32 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.UUID;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PostgresService {
 
     private final FileMetadataPostgresRepository repository;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * Inserts the metadata or updates the user's existing row for the same file
+     * name in a single statement, and returns the row as stored.
+     */
     @Transactional
-    public void saveOrUpdateMetadata(FileMetadataPostgres metadata) {
-        repository.save(metadata);
+    public FileMetadataPostgres upsertMetadata(FileMetadataPostgres metadata) throws JsonProcessingException {
+        return repository.upsertMetadata(
+                UUID.randomUUID(),
+                metadata.getFileName(),
+                metadata.getFileType(),
+                objectMapper.writeValueAsString(metadata.getTags()),
+                objectMapper.writeValueAsString(metadata.getCategories()),
+                metadata.getSummary(),
+                metadata.getS3Location(),
+                metadata.getUserId(),
+                metadata.getEmail(),
+                metadata.getFileSize());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,241 @@
+package com.tags_generation_service.tags_generation_service.Service;
+
+import com.tags_generation_service.tags_generation_service.Dto.StorageUsageEvent;
+import com.tags_generation_service.tags_generation_service.Model.FileMetadataPostgres;
+import com.tags_generation_service.tags_generation_service.Model.PurgeJob;
+import com.tags_generation_service.tags_generation_service.Model.PurgeJobStatus;
+import com.tags_generation_service.tags_generation_service.Repository.FileMetadataPostgresRepository;
+import com.tags_generation_service.tags_generation_service.Repository.PurgeJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Drains purge jobs created by {@link DeletePermanently}. Each batch of rows is
+ * split into S3 DeleteObjects calls of at most 1000 keys that run in parallel,
+ * and only rows whose objects are gone are deleted from Postgres. No DB
+ * transaction is held while S3 is being called.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PurgeJobWorker {
+
+    private final FileMetadataPostgresRepository fileMetadataPostgresRepository;
+    private final PurgeJobRepository purgeJobRepository;
+    private final S3Service s3Service;
+    private final ExecutorService purgeExecutor;
+    private final QueueService queueService;
+
+    @Value("${purge.batch-size:4000}")
+    private int batchSize;
+
+    @Value("${purge.stale-after-ms:300000}")
+    private long staleAfterMs;
+
+    @Value("${purge.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${purge.retry-backoff-ms:30000}")
+    private long retryBackoffMs;
+
+    @Value("${purge.max-retry-backoff-ms:1800000}")
+    private long maxRetryBackoffMs;
+
+    @Scheduled(fixedDelayString = "${purge.poll-interval-ms:2000}")
+    public void pollPurgeJobs() {
+        Date staleBefore = new Date(System.currentTimeMillis() - staleAfterMs);
+        purgeJobRepository.claimNextJob(staleBefore).ifPresent(job -> {
+            // A job that keeps killing its worker is only ever reclaimed as stale, never through the catch below.
+            if (job.getAttempts() > maxAttempts) {
+                log.error("Purge job {} exceeded {} attempts, marking it FAILED", job.getId(), maxAttempts);
+                purgeJobRepository.updateStatus(job.getId(), PurgeJobStatus.FAILED, "Exceeded max attempts", new Date());
+                return;
+            }
+            runJob(job);
+        });
+    }
+
+    void runJob(PurgeJob job) {
+        log.info("Running purge job {} (attempt {}, {}/{} files done)",
+                job.getId(), job.getAttempts(), job.getDeletedFiles(), job.getTotalFiles());
+        try {
+            List<FileMetadataPostgres> batch;
+            while (!(batch = fileMetadataPostgresRepository.findByPurgeJobId(job.getId(), PageRequest.of(0, batchSize))).isEmpty()) {
+                Set<String> keep = liveKeys(batch);
+                List<UUID> purgedIds = deleteObjects(job, batch, keep);
+
+                if (!purgedIds.isEmpty()) {
+                    fileMetadataPostgresRepository.deleteAllByIdIn(purgedIds.toArray(UUID[]::new));
+                    purgeJobRepository.recordProgress(job.getId(), purgedIds.size(), new Date());
+                    publishFreedStorage(job, batch, purgedIds, keep);
+                    log.info("Purge job {}: deleted {} files from S3 and PostgreSQL", job.getId(), purgedIds.size());
+                }
+
+                if (purgedIds.size() < batch.size()) {
+                    throw new IllegalStateException(String.format(
+                            "%d of %d files could not be deleted from S3", batch.size() - purgedIds.size(), batch.size()));
+                }
+            }
+
+            purgeJobRepository.markCompleted(job.getId(), new Date());
+            log.info("Purge job {} completed", job.getId());
+
+        } catch (Exception e) {
+            // Its rows keep purge_job_id, so they stay hidden from the user until the job is resolved by hand.
+            if (job.getAttempts() >= maxAttempts) {
+                log.error("Purge job {} failed on attempt {}, marking it FAILED", job.getId(), job.getAttempts(), e);
+                purgeJobRepository.updateStatus(job.getId(), PurgeJobStatus.FAILED, e.getMessage(), new Date());
+                return;
+            }
+            Date nextAttemptAt = new Date(System.currentTimeMillis() + retryDelayMs(job.getAttempts()));
+            log.error("Purge job {} failed on attempt {}, retrying at {}", job.getId(), job.getAttempts(), nextAttemptAt, e);
+            purgeJobRepository.scheduleRetry(job.getId(), e.getMessage(), nextAttemptAt, new Date());
+        }
+    }
+
+    long retryDelayMs(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 20);
+        return Math.min(retryBackoffMs << doublings, maxRetryBackoffMs);
+    }
+
+    /**
+     * Deletes the objects of the given rows and returns the ids whose objects
+     * were removed. S3 treats deleting a missing key as success, so a chunk
+     * that is retried after a crash simply succeeds again. The job's heartbeat
+     * is refreshed after every chunk, so a slow batch is not mistaken for a
+     * dead worker and claimed by another replica.
+     */
+    private List<UUID> deleteObjects(PurgeJob job, List<FileMetadataPostgres> files, Set<String> keep) {
+        List<CompletableFuture<List<UUID>>> futures = chunkByKeys(files, keep).stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> {
+                    if (!chunk.keys().isEmpty()) {
+                        s3Service.deleteFiles(chunk.keys());
+                    }
+                    purgeJobRepository.heartbeat(job.getId(), new Date());
+                    return chunk.fileIds();
+                }, purgeExecutor).exceptionally(ex -> {
+                    log.error("Failed to delete S3 chunk of {} keys", chunk.keys().size(), ex);
+                    return List.of();
+                }))
+                .toList();
+
+        List<UUID> purgedIds = new ArrayList<>();
+        futures.forEach(future -> purgedIds.addAll(future.join()));
+        return purgedIds;
+    }
+
+    // The event id is derived from the job and batch so a re-run of the same batch is deduplicated downstream.
+    // A row whose object a live row still points at frees nothing: only its row went away.
+    private void publishFreedStorage(PurgeJob job, List<FileMetadataPostgres> batch, List<UUID> purgedIds, Set<String> keep) {
+        Set<UUID> purged = new HashSet<>(purgedIds);
+        Map<String, Long> freedByUser = new LinkedHashMap<>();
+        for (FileMetadataPostgres file : batch) {
+            String key = extractS3KeyFromLocation(file.getS3Location());
+            if (purged.contains(file.getId()) && key != null && !keep.contains(key)
+                    && file.getUserId() != null && file.getFileSize() != null) {
+                freedByUser.merge(file.getUserId(), file.getFileSize(), Long::sum);
+            }
+        }
+        freedByUser.forEach((userId, bytes) -> queueService.publishStorageUsage(
+                new StorageUsageEvent(userId, -bytes, job.getId() + ":" + purgedIds.get(0) + ":" + userId)));
+    }
+
+    /**
+     * Object keys of the batch that a live row still points at. A row under purge
+     * can share its key with a live one (an older URL form of the same object, or
+     * a re-upload under the same name), and that object must stay.
+     */
+    private Set<String> liveKeys(List<FileMetadataPostgres> batch) {
+        String[] userIds = batch.stream().map(FileMetadataPostgres::getUserId).filter(Objects::nonNull).distinct().toArray(String[]::new);
+        String[] fileNames = batch.stream().map(FileMetadataPostgres::getFileName).filter(Objects::nonNull).distinct().toArray(String[]::new);
+        if (userIds.length == 0 || fileNames.length == 0) {
+            return Set.of();
+        }
+        Set<String> keys = new HashSet<>();
+        for (FileMetadataPostgresRepository.StoredObjects live : fileMetadataPostgresRepository.findLiveObjects(userIds, fileNames)) {
+            addKey(keys, live.getS3Location());
+            addKey(keys, live.getThumbnailS3Location());
+        }
+        return keys;
+    }
+
+    static List<DeleteChunk> chunkByKeys(List<FileMetadataPostgres> files) {
+        return chunkByKeys(files, Set.of());
+    }
+
+    static List<DeleteChunk> chunkByKeys(List<FileMetadataPostgres> files, Set<String> keep) {
+        List<DeleteChunk> chunks = new ArrayList<>();
+        DeleteChunk current = new DeleteChunk(new ArrayList<>(), new ArrayList<>());
+
+        for (FileMetadataPostgres file : files) {
+            List<String> keys = new ArrayList<>(2);
+            addKey(keys, file.getS3Location());
+            addKey(keys, file.getThumbnailS3Location());
+            keys.removeAll(keep);
+
+            if (current.keys().size() + keys.size() > S3Service.MAX_KEYS_PER_DELETE) {
+                chunks.add(current);
+                current = new DeleteChunk(new ArrayList<>(), new ArrayList<>());
+            }
+            current.fileIds().add(file.getId());
+            current.keys().addAll(keys);
+        }
+
+        if (!current.fileIds().isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    private static void addKey(Collection<String> keys, String location) {
+        String key = extractS3KeyFromLocation(location);
+        if (key != null && !key.isEmpty()) {
+            keys.add(key);
+        }
+    }
+
+    private static String extractS3KeyFromLocation(String s3Location) {
+        if (s3Location == null || s3Location.isEmpty()) {
+            return null;
+        }
+
+        if (!s3Location.startsWith("http")) {
+            return s3Location;
+        }
+
+        try {
+            int lastSlashIndex = s3Location.indexOf(".com/");
+            if (lastSlashIndex != -1) {
+                return s3Location.substring(lastSlashIndex + 5); // +5 to skip ".com/"
+            }
+
+            String[] parts = s3Location.split("/", 4);
+            if (parts.length >= 4) {
+                return parts[3];
+            }
+        } catch (Exception e) {
+            log.error("Error extracting S3 key from location: {}", s3Location, e);
+        }
+
+        return null;
+    }
+
+    record DeleteChunk(List<UUID> fileIds, List<String> keys) {}
+}
@@ -3,12 +3,17 @@ package com.tags_generation_service.tags_generation_service.Service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tags_generation_service.tags_generation_service.Dto.FileBulkUpdateEvent;
+import com.tags_generation_service.tags_generation_service.Dto.StorageUsageEvent;
 import com.tags_generation_service.tags_generation_service.Model.FileMetadataPostgres;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.UUID;
+
 
 @Slf4j
 @Service
@@ -19,6 +24,12 @@ public class QueueService {
     private final ObjectMapper objectMapper;
     private final String metadataTopic = "file-metadata-search";
     private final String FileDeleteTopic = "file-metadata-delete";
+    private final String bulkUpdateTopic = "file-metadata-bulk-update";
+    private final String bulkDeleteTopic = "file-metadata-delete-bulk";
+    private final String storageUsageTopic = "storage-usage-events";
+
+    // Keeps a single event well below Kafka's default 1 MB message limit.
+    private static final int MAX_IDS_PER_EVENT = 10_000;
 
     public void publishFileRequest(FileMetadataPostgres fileMetadataPostgres) {
         try {
@@ -38,4 +49,41 @@ public class QueueService {
             log.error("Failed to serialize FileMetadataPostgres to JSON", e);
         }
     }
-}
\ No newline at end of file
+
+    public void publishBulkUpdate(FileBulkUpdateEvent event) {
+        List<UUID> fileIds = event.getFileIds();
+        try {
+            for (int from = 0; from < fileIds.size(); from += MAX_IDS_PER_EVENT) {
+                FileBulkUpdateEvent chunk = event.toBuilder()
+                        .fileIds(fileIds.subList(from, Math.min(from + MAX_IDS_PER_EVENT, fileIds.size())))
+                        .build();
+                kafkaTemplate.send(bulkUpdateTopic, event.getUserId(), objectMapper.writeValueAsString(chunk));
+            }
+            log.info("Published message to Kafka topic '{}' for {} files of user: {}", bulkUpdateTopic, fileIds.size(), event.getUserId());
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize FileBulkUpdateEvent to JSON", e);
+        }
+    }
+
+    public void deleteFileRequests(List<UUID> fileIds) {
+        try {
+            for (int from = 0; from < fileIds.size(); from += MAX_IDS_PER_EVENT) {
+                String jsonMessage = objectMapper.writeValueAsString(
+                        fileIds.subList(from, Math.min(from + MAX_IDS_PER_EVENT, fileIds.size())));
+                kafkaTemplate.send(bulkDeleteTopic, jsonMessage);
+            }
+            log.info("Published message to Kafka topic '{}' for {} files", bulkDeleteTopic, fileIds.size());
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize file ids to JSON", e);
+        }
+    }
+
+    public void publishStorageUsage(StorageUsageEvent event) {
+        try {
+            // Keyed by user so one user's deltas are applied in order.
+            kafkaTemplate.send(storageUsageTopic, event.userId(), objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize StorageUsageEvent to JSON", e);
+        }
+    }
+}
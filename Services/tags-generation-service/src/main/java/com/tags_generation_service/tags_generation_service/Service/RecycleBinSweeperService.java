@@ -0,0 +1,104 @@
+package com.tags_generation_service.tags_generation_service.Service;
+
+import com.tags_generation_service.tags_generation_service.Repository.FileMetadataPostgresRepository;
+import com.tags_generation_service.tags_generation_service.Repository.FileMetadataPostgresRepository.ExpiredFile;
+import com.tags_generation_service.tags_generation_service.config.RecycleBinSweeperProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Purges recycle-bin entries trashed longer ago than the configured retention,
+ * going by their recycled_at. Only one replica sweeps at a time (Redis lock),
+ * each run covers one user shard, and expired files go through {@link DeletePermanently} like a user-initiated purge.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecycleBinSweeperService {
+
+    private static final DefaultRedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final FileMetadataPostgresRepository fileMetadataPostgresRepository;
+    private final DeletePermanently deletePermanently;
+    private final StringRedisTemplate redisTemplate;
+    private final RecycleBinSweeperProperties properties;
+
+    @Scheduled(fixedDelayString = "${recycle-bin.sweeper.interval:PT1H}", initialDelayString = "${recycle-bin.sweeper.initial-delay:PT5M}")
+    public void sweep() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        String lockKey = properties.getRedis().getLockKey();
+        String lockToken = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(lockKey, lockToken, properties.getRedis().getLockTtl());
+        if (!Boolean.TRUE.equals(acquired)) {
+            log.debug("Recycle-bin sweep skipped, another replica holds the lock");
+            return;
+        }
+
+        try {
+            int shard = nextShard();
+            int purged = sweepShard(shard);
+            log.info("Recycle-bin sweep of shard {}/{} queued {} files for purge", shard, properties.getShardCount(), purged);
+        } finally {
+            redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), lockToken);
+        }
+    }
+
+    int sweepShard(int shard) {
+        int stamped = fileMetadataPostgresRepository.stampUnstampedRecycled();
+        if (stamped > 0) {
+            log.info("Stamped recycled_at on {} recycle-bin entries that had none", stamped);
+        }
+
+        Date cutoff = new Date(System.currentTimeMillis() - properties.getRetention().toMillis());
+        int purged = 0;
+
+        for (int batchNo = 0; batchNo < properties.getMaxBatchesPerRun(); batchNo++) {
+            List<ExpiredFile> batch = fileMetadataPostgresRepository.findExpiredInRecycleBin(
+                    cutoff, shard, properties.getShardCount(), properties.getBatchSize());
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            Map<String, List<UUID>> idsByUser = batch.stream()
+                    .collect(Collectors.groupingBy(ExpiredFile::getUserId,
+                            Collectors.mapping(ExpiredFile::getId, Collectors.toList())));
+            idsByUser.forEach((userId, ids) -> deletePermanently.DeleteFilePermanently(ids, userId));
+            purged += batch.size();
+
+            if (batch.size() < properties.getBatchSize()) {
+                break;
+            }
+            pause();
+        }
+        return purged;
+    }
+
+    // Rotates through the shards across runs, whichever replica happens to win the lock.
+    private int nextShard() {
+        Long ticket = redisTemplate.opsForValue().increment(properties.getRedis().getCursorKey());
+        return (int) Math.floorMod(ticket == null ? 0L : ticket, (long) properties.getShardCount());
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(properties.getPauseBetweenBatches().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
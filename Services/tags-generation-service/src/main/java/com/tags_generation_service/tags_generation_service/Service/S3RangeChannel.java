@@ -0,0 +1,111 @@
+package com.tags_generation_service.tags_generation_service.Service;
+
+import org.jcodec.common.io.SeekableByteChannel;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.NonWritableChannelException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-only seekable view of an S3 object backed by ranged GETs. Reads are
+ * served from fixed-size blocks kept in a small LRU, so a decoder that jumps
+ * between the container index and a handful of frames only fetches the blocks
+ * it touches instead of the whole object.
+ */
+public class S3RangeChannel implements SeekableByteChannel {
+
+    private final S3Client s3Client;
+    private final String bucket;
+    private final String key;
+    private final long size;
+    private final int blockSize;
+    private final Map<Long, byte[]> blocks;
+
+    private long position;
+    private boolean open = true;
+
+    S3RangeChannel(S3Client s3Client, String bucket, String key, long size, int blockSize, int cachedBlocks) {
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+        this.key = key;
+        this.size = size;
+        this.blockSize = blockSize;
+        this.blocks = new LinkedHashMap<>(cachedBlocks, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                return size() > cachedBlocks;
+            }
+        };
+    }
+
+    @Override
+    public int read(ByteBuffer dst) {
+        if (position >= size) {
+            return -1;
+        }
+        int total = 0;
+        while (dst.hasRemaining() && position < size) {
+            long index = position / blockSize;
+            byte[] block = blocks.computeIfAbsent(index, this::fetch);
+            int offset = (int) (position - index * blockSize);
+            int length = Math.min(dst.remaining(), block.length - offset);
+            dst.put(block, offset, length);
+            position += length;
+            total += length;
+        }
+        return total;
+    }
+
+    private byte[] fetch(long index) {
+        long from = index * blockSize;
+        long to = Math.min(size, from + blockSize) - 1;
+        ResponseBytes<GetObjectResponse> bytes = s3Client.getObjectAsBytes(GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .range("bytes=" + from + "-" + to)
+                .build());
+        return bytes.asByteArray();
+    }
+
+    @Override
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel setPosition(long newPosition) {
+        this.position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+        blocks.clear();
+    }
+}
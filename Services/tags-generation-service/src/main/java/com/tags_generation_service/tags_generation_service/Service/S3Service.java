@@ -12,8 +12,10 @@ import org.springframework.beans.factory.annotation.Value;
 
 import java.io.InputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 @Slf4j
 @Service
@@ -21,6 +23,15 @@ public class S3Service {
     private final S3Client s3Client;
     private final String bucketName;
 
+    @Value("${media.range-block-size:1048576}")
+    private int rangeBlockSize;
+
+    @Value("${media.range-cached-blocks:8}")
+    private int rangeCachedBlocks;
+
+    // Hard limit of the S3 DeleteObjects API.
+    public static final int MAX_KEYS_PER_DELETE = 1000;
+
     public S3Service(
             @Value("${aws.region}") String region,
             @Value("${aws.credentials.access-key}") String accessKey,
@@ -40,28 +51,72 @@ public class S3Service {
     }
 
     public InputStream downloadFile(String s3Location) {
+        String key = resolveKey(s3Location);
+
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
+
+        log.info("Attempting to download file from S3 using key: {}", key);
+
+        return s3Client.getObject(getObjectRequest);
+    }
+
+    /** Fetches only the first {@code length} bytes of the object. */
+    public InputStream downloadHead(String s3Location, long length) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(resolveKey(s3Location))
+                .range("bytes=0-" + (length - 1))
+                .build();
 
+        return s3Client.getObject(getObjectRequest);
+    }
 
+    /** Opens a seekable view of the object that reads it in ranged blocks on demand. */
+    public S3RangeChannel openRangeChannel(String s3Location) {
+        String key = resolveKey(s3Location);
+        long size = s3Client.headObject(HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build()).contentLength();
+        return new S3RangeChannel(s3Client, bucketName, key, size, rangeBlockSize, rangeCachedBlocks);
+    }
+
+    private String resolveKey(String s3Location) {
         String regionId = s3Client.serviceClientConfiguration().region().id();
         String urlPrefix = String.format("https://%s.s3.%s.amazonaws.com/", bucketName, regionId);
 
-        String key;
-
         if (s3Location.startsWith(urlPrefix)) {
-            key = s3Location.substring(urlPrefix.length());
-        } else {
-            log.warn("S3 location does not start with expected URL prefix ({}). Assuming raw S3 key.", urlPrefix);
-            key = s3Location;
+            return s3Location.substring(urlPrefix.length());
         }
+        log.warn("S3 location does not start with expected URL prefix ({}). Assuming raw S3 key.", urlPrefix);
+        return s3Location;
+    }
 
+    /** Reads a gzip sidecar written by the upload service and deletes it; it is only ever read once. */
+    public String consumeCompressedText(String key) throws IOException {
         GetObjectRequest getObjectRequest = GetObjectRequest.builder()
                 .bucket(bucketName)
                 .key(key)
                 .build();
 
-        log.info("Attempting to download file from S3 using key: {}", key);
+        String text;
+        try (InputStream in = new GZIPInputStream(s3Client.getObject(getObjectRequest))) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucketName).key(key).build());
+        return text;
+    }
 
-        return s3Client.getObject(getObjectRequest);
+    /** Deletes a sidecar that is not going to be read. Best effort: the bucket's lifecycle rule expires leftovers. */
+    public void deleteCompressed(String key) {
+        try {
+            s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucketName).key(key).build());
+        } catch (Exception e) {
+            log.warn("Failed to delete extraction sidecar {}: {}", key, e.getMessage());
+        }
     }
 
     public String uploadFile(String key, InputStream inputStream) throws IOException {
@@ -91,6 +146,12 @@ public class S3Service {
     }
 
     public void deleteFiles(List<String> keys) {
+        for (int from = 0; from < keys.size(); from += MAX_KEYS_PER_DELETE) {
+            deleteChunk(keys.subList(from, Math.min(from + MAX_KEYS_PER_DELETE, keys.size())));
+        }
+    }
+
+    private void deleteChunk(List<String> keys) {
         try {
             List<ObjectIdentifier> objects = keys.stream()
                     .map(key -> ObjectIdentifier.builder().key(key).build())
@@ -98,6 +159,7 @@ public class S3Service {
 
             Delete delete = Delete.builder()
                     .objects(objects)
+                    .quiet(true)
                     .build();
 
             DeleteObjectsRequest deleteObjectsRequest = DeleteObjectsRequest.builder()
@@ -105,9 +167,14 @@ public class S3Service {
                     .delete(delete)
                     .build();
 
-            s3Client.deleteObjects(deleteObjectsRequest);
-            System.out.println(deleteObjectsRequest);
-            log.info("Successfully deleted files from S3 bucket {}: {}", bucketName, keys);
+            DeleteObjectsResponse response = s3Client.deleteObjects(deleteObjectsRequest);
+            if (response.hasErrors() && !response.errors().isEmpty()) {
+                S3Error first = response.errors().get(0);
+                log.error("Failed to delete {} of {} objects from S3, first error on {}: {}",
+                        response.errors().size(), keys.size(), first.key(), first.message());
+                throw new RuntimeException("Error deleting files from S3: " + first.message());
+            }
+            log.info("Successfully deleted {} files from S3 bucket {}", keys.size(), bucketName);
 
         } catch (S3Exception e) {
             log.error("Failed to delete objects from S3: {}", e.awsErrorDetails().errorMessage());
@@ -1,11 +1,13 @@
 package com.tags_generation_service.tags_generation_service.Service;
 
+import com.tags_generation_service.tags_generation_service.Dto.FileBulkUpdateEvent;
 import com.tags_generation_service.tags_generation_service.Exception.ResourceNotFoundException; // Import
-import com.tags_generation_service.tags_generation_service.Model.FileMetadataPostgres;
 import com.tags_generation_service.tags_generation_service.Repository.FileMetadataPostgresRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -15,16 +17,36 @@ public class StarService {
     private final FileMetadataPostgresRepository fileMetadataPostgresRepository;
     private final QueueService queueService;
 
-    public Boolean UpdateStar(UUID fileId, Boolean isStarredStatus) {
-        FileMetadataPostgres file = fileMetadataPostgresRepository.findById(fileId)
-                .orElseThrow(() -> new ResourceNotFoundException("File", "id", fileId));
-
-        file.setIsStarred(isStarredStatus);
-        fileMetadataPostgresRepository.save(file);
-
-        queueService.publishFileRequest(file);
+    @Transactional
+    public Boolean UpdateStar(UUID fileId, Boolean isStarredStatus, String userId) {
+        List<UUID> updatedIds = UpdateStars(List.of(fileId), isStarredStatus, userId);
+        if (updatedIds.isEmpty()) {
+            throw new ResourceNotFoundException("File", "id", fileId);
+        }
 
         log.info("Successfully updated star status for file: {}", fileId);
         return true;
     }
-}
\ No newline at end of file
+
+    @Transactional
+    public List<UUID> UpdateStars(List<UUID> fileIds, Boolean isStarredStatus, String userId) {
+        if (fileIds == null || fileIds.isEmpty()) {
+            return List.of();
+        }
+
+        boolean starred = Boolean.TRUE.equals(isStarredStatus);
+        List<UUID> updatedIds = fileMetadataPostgresRepository.updateStarStatus(
+                fileIds.toArray(UUID[]::new), userId, starred);
+
+        if (!updatedIds.isEmpty()) {
+            queueService.publishBulkUpdate(FileBulkUpdateEvent.builder()
+                    .userId(userId)
+                    .fileIds(updatedIds)
+                    .isStarred(starred)
+                    .build());
+        }
+
+        log.info("Updated star status to {} for {} of {} requested files", starred, updatedIds.size(), fileIds.size());
+        return updatedIds;
+    }
+}
@@ -2,8 +2,10 @@ package com.tags_generation_service.tags_generation_service;
 
 import org.springframework.boot.SpringApplication; 
 import org.springframework.boot.autoconfigure.SpringBootApplication; 
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication 
+@EnableScheduling
 public class TagGenerationServiceApplication {
 
 	public static void main(String[] args) {
@@ -1,6 +1,7 @@
 package com.tags_generation_service.tags_generation_service.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -9,6 +10,9 @@ import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.util.backoff.FixedBackOff;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
 public class AppConfig {
 
@@ -28,4 +32,10 @@ public class AppConfig {
 
         return errorHandler;
     }
-}
\ No newline at end of file
+
+    // S3 deletes only wait on the network, so the workers are virtual; the pool size still caps parallel calls.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService purgeExecutor(@Value("${purge.s3-parallelism:4}") int parallelism) {
+        return Executors.newFixedThreadPool(parallelism, Thread.ofVirtual().name("purge-s3-", 0).factory());
+    }
+}
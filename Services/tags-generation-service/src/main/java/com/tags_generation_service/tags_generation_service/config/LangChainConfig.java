@@ -18,6 +18,12 @@ public class LangChainConfig {
 
     private static final Logger log = LoggerFactory.getLogger(LangChainConfig.class);
 
+    public static final StructuredSchema METADATA_SCHEMA = StructuredSchema.builder("file_metadata")
+            .requiredStringArray("tags")
+            .requiredStringArray("categories")
+            .requiredString("summary")
+            .build();
+
     @Value("${genai.gemini.api-key}")
     private String geminiKey;
 
@@ -42,6 +48,7 @@ public class LangChainConfig {
                 .modelName(textModel)
                 .temperature(0.3)
                 .timeout(Duration.ofSeconds(60))
+                .responseFormat(METADATA_SCHEMA.toResponseFormat())
                 .build());
 
         models.put("code", GoogleAiGeminiChatModel.builder()
@@ -49,6 +56,7 @@ public class LangChainConfig {
                 .modelName(codeModel)
                 .temperature(0.1)
                 .timeout(Duration.ofSeconds(60))
+                .responseFormat(METADATA_SCHEMA.toResponseFormat())
                 .build());
 
         models.put("image", GoogleAiGeminiChatModel.builder()
@@ -56,6 +64,7 @@ public class LangChainConfig {
                 .modelName(imageModel)
                 .temperature(0.5)
                 .timeout(Duration.ofSeconds(60))
+                .responseFormat(METADATA_SCHEMA.toResponseFormat())
                 .build());
 
         models.put("default", GoogleAiGeminiChatModel.builder()
@@ -63,6 +72,7 @@ public class LangChainConfig {
                 .modelName(textModel)
                 .temperature(0.4)
                 .timeout(Duration.ofSeconds(60))
+                .responseFormat(METADATA_SCHEMA.toResponseFormat())
                 .build());
 
         return models;
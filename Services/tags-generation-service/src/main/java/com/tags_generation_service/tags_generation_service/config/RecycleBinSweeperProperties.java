@@ -0,0 +1,38 @@
+package com.tags_generation_service.tags_generation_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "recycle-bin.sweeper")
+public class RecycleBinSweeperProperties {
+
+    private boolean enabled = true;
+
+    /** How long a file stays in the recycle bin before it is purged. */
+    private Duration retention = Duration.ofDays(30);
+
+    /** Rows handed to the permanent-delete path per batch. */
+    private int batchSize = 500;
+
+    /** Upper bound on batches per run, so one run can't flood the purge worker. */
+    private int maxBatchesPerRun = 20;
+
+    private Duration pauseBetweenBatches = Duration.ofMillis(500);
+
+    /** Users are split into this many hash shards; each run sweeps the next shard. */
+    private int shardCount = 16;
+
+    private Redis redis = new Redis();
+
+    @Data
+    public static class Redis {
+        private String lockKey = "recycle-bin:sweeper:lock";
+        private String cursorKey = "recycle-bin:sweeper:next-shard";
+        private Duration lockTtl = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,118 @@
+package com.tags_generation_service.tags_generation_service.config;
+
+import dev.langchain4j.model.chat.request.ResponseFormat;
+import dev.langchain4j.model.chat.request.ResponseFormatType;
+import dev.langchain4j.model.chat.request.json.JsonArraySchema;
+import dev.langchain4j.model.chat.request.json.JsonEnumSchema;
+import dev.langchain4j.model.chat.request.json.JsonObjectSchema;
+import dev.langchain4j.model.chat.request.json.JsonSchema;
+import dev.langchain4j.model.chat.request.json.JsonSchemaElement;
+import dev.langchain4j.model.chat.request.json.JsonStringSchema;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shape of a JSON object the LLM must answer with. The same definition is sent
+ * to Gemini as the response schema and used by {@code StructuredOutputParser}
+ * to validate what comes back, so the two cannot drift apart.
+ */
+public final class StructuredSchema {
+
+    public enum Type { STRING, STRING_ARRAY }
+
+    public record Field(String name, Type type, boolean required, List<String> allowedValues) {}
+
+    private final String name;
+    private final Map<String, Field> fields;
+
+    private StructuredSchema(String name, Map<String, Field> fields) {
+        this.name = name;
+        this.fields = fields;
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Field field(String fieldName) {
+        return fields.get(fieldName);
+    }
+
+    public List<Field> fields() {
+        return List.copyOf(fields.values());
+    }
+
+    public ResponseFormat toResponseFormat() {
+        Map<String, JsonSchemaElement> properties = new LinkedHashMap<>();
+        List<String> required = new ArrayList<>();
+        for (Field field : fields.values()) {
+            properties.put(field.name(), toElement(field));
+            if (field.required()) {
+                required.add(field.name());
+            }
+        }
+        JsonSchema schema = JsonSchema.builder()
+                .name(name)
+                .rootElement(JsonObjectSchema.builder()
+                        .properties(properties)
+                        .required(required)
+                        .build())
+                .build();
+        return ResponseFormat.builder()
+                .type(ResponseFormatType.JSON)
+                .jsonSchema(schema)
+                .build();
+    }
+
+    private static JsonSchemaElement toElement(Field field) {
+        if (field.type() == Type.STRING_ARRAY) {
+            return JsonArraySchema.builder().items(JsonStringSchema.builder().build()).build();
+        }
+        if (!field.allowedValues().isEmpty()) {
+            return JsonEnumSchema.builder().enumValues(field.allowedValues()).build();
+        }
+        return JsonStringSchema.builder().build();
+    }
+
+    public static final class Builder {
+        private final String name;
+        private final Map<String, Field> fields = new LinkedHashMap<>();
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder requiredString(String fieldName, String... allowedValues) {
+            return add(new Field(fieldName, Type.STRING, true, List.of(allowedValues)));
+        }
+
+        public Builder optionalString(String fieldName) {
+            return add(new Field(fieldName, Type.STRING, false, List.of()));
+        }
+
+        public Builder requiredStringArray(String fieldName) {
+            return add(new Field(fieldName, Type.STRING_ARRAY, true, List.of()));
+        }
+
+        public Builder optionalStringArray(String fieldName) {
+            return add(new Field(fieldName, Type.STRING_ARRAY, false, List.of()));
+        }
+
+        private Builder add(Field field) {
+            fields.put(field.name(), field);
+            return this;
+        }
+
+        public StructuredSchema build() {
+            return new StructuredSchema(name, Collections.unmodifiableMap(new LinkedHashMap<>(fields)));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+-- Schema as previously created by Hibernate ddl-auto. Databases that already
+-- have it are baselined at this version and skip this script.
+CREATE TABLE IF NOT EXISTS file_metadata (
+    id                      UUID PRIMARY KEY,
+    file_name               VARCHAR(255),
+    file_type               VARCHAR(255),
+    tags                    JSONB,
+    categories              JSONB,
+    summary                 TEXT,
+    security_status         VARCHAR(255),
+    rejection_reason        TEXT,
+    processed_at            TIMESTAMP(6),
+    additional_metadata     JSONB,
+    s3_location             VARCHAR(255) UNIQUE,
+    thumbnail_s3_location   TEXT,
+    user_id                 TEXT,
+    is_moved_to_recycle_bin BOOLEAN,
+    is_starred              BOOLEAN,
+    file_size               BIGINT,
+    modified_at             TIMESTAMP(6),
+    email                   TEXT
+);
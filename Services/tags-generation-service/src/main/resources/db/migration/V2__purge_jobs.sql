@@ -0,0 +1,16 @@
+ALTER TABLE file_metadata ADD COLUMN IF NOT EXISTS purge_job_id UUID;
+
+CREATE TABLE IF NOT EXISTS purge_jobs (
+    id            UUID PRIMARY KEY,
+    user_id       TEXT,
+    status        VARCHAR(16) NOT NULL,
+    total_files   INTEGER NOT NULL DEFAULT 0,
+    deleted_files INTEGER NOT NULL DEFAULT 0,
+    attempts      INTEGER NOT NULL DEFAULT 0,
+    last_error    TEXT,
+    created_at    TIMESTAMP(6),
+    heartbeat_at  TIMESTAMP(6),
+    completed_at  TIMESTAMP(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_purge_jobs_status_created_at ON purge_jobs (status, created_at);
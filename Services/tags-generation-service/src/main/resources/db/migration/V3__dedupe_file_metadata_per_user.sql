@@ -0,0 +1,30 @@
+-- Rows sharing (user_id, file_name) are earlier uploads under the same name.
+-- s3_location is unique, so each of them still refers to its own object and
+-- search document, and nothing is deleted here. The most recently touched row
+-- keeps its name; the older ones get the row id inserted before the extension
+-- ("report.pdf" becomes "report (duplicate <id>).pdf"), which cannot collide
+-- with another name and lets the unique index in V4 be built. The user can
+-- then keep, rename or delete them like any other file. The stem is shortened
+-- where needed to stay within file_name's 255 characters.
+WITH ranked AS (
+    SELECT id,
+           row_number() OVER (
+               PARTITION BY user_id, file_name
+               ORDER BY COALESCE(modified_at, processed_at) DESC NULLS LAST, id
+           ) AS rn
+    FROM file_metadata
+    WHERE user_id IS NOT NULL AND file_name IS NOT NULL AND purge_job_id IS NULL
+),
+renamed AS (
+    SELECT f.id,
+           regexp_replace(f.file_name, '\.[^./]*$', '') AS stem,
+           COALESCE(substring(f.file_name FROM '\.[^./]*$'), '') AS ext,
+           ' (duplicate ' || f.id || ')' AS suffix
+    FROM file_metadata f
+    JOIN ranked r ON r.id = f.id
+    WHERE r.rn > 1
+)
+UPDATE file_metadata f
+SET file_name = left(n.stem, GREATEST(255 - length(n.suffix) - length(n.ext), 0)) || n.suffix || n.ext
+FROM renamed n
+WHERE f.id = n.id;
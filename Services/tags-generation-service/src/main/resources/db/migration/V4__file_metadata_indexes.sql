@@ -0,0 +1,48 @@
+-- Built CONCURRENTLY so the migration doesn't block writes on a live table.
+
+-- A failed CONCURRENTLY build leaves an INVALID index behind, which IF NOT EXISTS
+-- would then keep instead of rebuilding. Drop such leftovers first; an invalid
+-- index is never used by the planner, so a plain DROP only locks briefly.
+DO $$
+DECLARE
+    leftover record;
+BEGIN
+    FOR leftover IN
+        SELECT c.relname
+        FROM pg_index i
+        JOIN pg_class c ON c.oid = i.indexrelid
+        WHERE i.indrelid = 'file_metadata'::regclass AND NOT i.indisvalid
+    LOOP
+        EXECUTE format('DROP INDEX IF EXISTS %I', leftover.relname);
+    END LOOP;
+END $$;
+
+-- findByTag / findByCategory: tags @> to_jsonb(...), jsonb_path_ops covers @>.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_file_metadata_tags_gin
+    ON file_metadata USING gin (tags jsonb_path_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_file_metadata_categories_gin
+    ON file_metadata USING gin (categories jsonb_path_ops);
+
+-- Per-user listings (drive, trash, recent) and the bulk ownership-scoped updates.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_file_metadata_user_recycled_modified
+    ON file_metadata (user_id, is_moved_to_recycle_bin, modified_at);
+
+-- Upsert key for metadata saves; V3 renamed the older duplicates. Rows under
+-- purge are left out, since a re-upload must not revive a row being purged.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uq_file_metadata_user_file_name
+    ON file_metadata (user_id, file_name)
+    WHERE purge_job_id IS NULL;
+
+-- Recycle-bin sweeper: expired entries not yet handed to a purge job. Replaces
+-- the plain index the entity used to declare for ddl-auto.
+DROP INDEX CONCURRENTLY IF EXISTS idx_file_metadata_recycled_modified_at;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_file_metadata_recycle_bin_expiry
+    ON file_metadata (modified_at)
+    WHERE is_moved_to_recycle_bin AND purge_job_id IS NULL;
+
+-- Purge worker batches.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_file_metadata_purge_job_id
+    ON file_metadata (purge_job_id)
+    WHERE purge_job_id IS NOT NULL;
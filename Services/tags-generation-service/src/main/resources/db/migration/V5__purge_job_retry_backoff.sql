@@ -0,0 +1,2 @@
+-- Failed purge attempts are retried with backoff instead of on the next poll.
+ALTER TABLE purge_jobs ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP(6);
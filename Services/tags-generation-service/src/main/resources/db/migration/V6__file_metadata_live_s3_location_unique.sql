@@ -0,0 +1,25 @@
+-- A file re-uploaded while its old row is still being purged gets a new row
+-- with the same s3_location, so the location only has to be unique among live
+-- rows. Built CONCURRENTLY like V4, before the old constraint goes away.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uq_file_metadata_live_s3_location
+    ON file_metadata (s3_location)
+    WHERE purge_job_id IS NULL;
+
+-- V1 names the constraint file_metadata_s3_location_key, ddl-auto gave it a
+-- generated name; drop whichever unique constraint covers only s3_location.
+DO $$
+DECLARE
+    constraint_row record;
+BEGIN
+    FOR constraint_row IN
+        SELECT con.conname
+        FROM pg_constraint con
+        JOIN pg_attribute att ON att.attrelid = con.conrelid AND att.attnum = ANY (con.conkey)
+        WHERE con.conrelid = 'file_metadata'::regclass
+          AND con.contype = 'u'
+          AND array_length(con.conkey, 1) = 1
+          AND att.attname = 's3_location'
+    LOOP
+        EXECUTE format('ALTER TABLE file_metadata DROP CONSTRAINT %I', constraint_row.conname);
+    END LOOP;
+END $$;
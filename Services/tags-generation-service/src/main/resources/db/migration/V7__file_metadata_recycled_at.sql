@@ -0,0 +1,8 @@
+-- The recycle-bin sweeper used to expire entries on modified_at, which for a
+-- file trashed before this column existed is its upload time. Trashed rows are
+-- stamped with the deploy time instead, so they get the full retention period.
+ALTER TABLE file_metadata ADD COLUMN IF NOT EXISTS recycled_at TIMESTAMP(6);
+
+UPDATE file_metadata
+SET recycled_at = now()
+WHERE is_moved_to_recycle_bin AND recycled_at IS NULL;
@@ -0,0 +1,7 @@
+-- Recycle-bin sweeper now expires entries on recycled_at (V7). Built
+-- CONCURRENTLY like V4, before the modified_at index goes away.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_file_metadata_recycle_bin_recycled_at
+    ON file_metadata (recycled_at)
+    WHERE is_moved_to_recycle_bin AND purge_job_id IS NULL;
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_file_metadata_recycle_bin_expiry;
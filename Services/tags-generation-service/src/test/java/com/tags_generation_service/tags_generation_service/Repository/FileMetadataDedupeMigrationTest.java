@@ -0,0 +1,81 @@
+package com.tags_generation_service.tags_generation_service.Repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Seeds duplicate (user_id, file_name) rows on the V2 schema and checks that
+ * V3 renames the older ones instead of removing them, so V4 can build its
+ * unique index.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class FileMetadataDedupeMigrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Test
+    void migrate_DuplicateNames_ShouldRenameOlderRowsAndKeepEveryRow() throws SQLException {
+        flyway("2").migrate();
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO file_metadata (id, file_name, s3_location, user_id, modified_at) VALUES
+                    ('00000000-0000-0000-0000-000000000001', 'report.pdf', 'user1/a', 'user1', now() - interval '2 days'),
+                    ('00000000-0000-0000-0000-000000000002', 'report.pdf', 'user1/b', 'user1', now()),
+                    ('00000000-0000-0000-0000-000000000003', 'README', 'user1/c', 'user1', now() - interval '1 day'),
+                    ('00000000-0000-0000-0000-000000000004', 'README', 'user1/d', 'user1', now()),
+                    ('00000000-0000-0000-0000-000000000005', 'report.pdf', 'user2/a', 'user2', now()),
+                    ('00000000-0000-0000-0000-000000000006', repeat('x', 251) || '.txt', 'user2/b', 'user2', now() - interval '1 day'),
+                    ('00000000-0000-0000-0000-000000000007', repeat('x', 251) || '.txt', 'user2/c', 'user2', now())
+                    """);
+        }
+
+        flyway(null).migrate();
+
+        assertEquals(List.of(
+                "00000000-0000-0000-0000-000000000001=report (duplicate 00000000-0000-0000-0000-000000000001).pdf",
+                "00000000-0000-0000-0000-000000000002=report.pdf",
+                "00000000-0000-0000-0000-000000000003=README (duplicate 00000000-0000-0000-0000-000000000003)",
+                "00000000-0000-0000-0000-000000000004=README",
+                "00000000-0000-0000-0000-000000000005=report.pdf",
+                "00000000-0000-0000-0000-000000000006=" + "x".repeat(251 - 49) + " (duplicate 00000000-0000-0000-0000-000000000006).txt",
+                "00000000-0000-0000-0000-000000000007=" + "x".repeat(251) + ".txt"), rows());
+    }
+
+    private static Flyway flyway(String target) {
+        var configuration = Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        if (target != null) {
+            configuration.target(target);
+        }
+        return configuration.load();
+    }
+
+    private static List<String> rows() throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Connection connection = connect(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id, file_name FROM file_metadata WHERE purge_job_id IS NULL ORDER BY id")) {
+            while (rs.next()) {
+                rows.add(rs.getString("id") + "=" + rs.getString("file_name"));
+            }
+        }
+        return rows;
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+}
@@ -0,0 +1,115 @@
+package com.tags_generation_service.tags_generation_service.Repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the migrations against a real Postgres and checks that the hot
+ * file_metadata queries are served by an index. Sequential scans are
+ * disabled for the session, so a plan that still contains one means no
+ * index can answer the query.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class FileMetadataQueryPlanTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO file_metadata (id, file_name, file_type, tags, categories, s3_location, user_id,
+                                               is_moved_to_recycle_bin, is_starred, file_size, modified_at, recycled_at)
+                    SELECT gen_random_uuid(), 'file-' || g || '.pdf', 'text',
+                           jsonb_build_array('tag' || (g % 50), 'common'),
+                           jsonb_build_array('category' || (g % 5)),
+                           'user' || (g % 100) || '/file-' || g || '.pdf', 'user' || (g % 100),
+                           g % 10 = 0, false, 1024, now() - (g || ' minutes')::interval,
+                           CASE WHEN g % 10 = 0 THEN now() - (g || ' minutes')::interval END
+                    FROM generate_series(1, 5000) g
+                    """);
+            statement.execute("ANALYZE file_metadata");
+        }
+    }
+
+    @Test
+    void findByTag_UsesGinIndex() throws SQLException {
+        assertIndexScan("SELECT * FROM file_metadata WHERE tags @> to_jsonb(ARRAY['tag7']::text[]) AND purge_job_id IS NULL",
+                "idx_file_metadata_tags_gin");
+    }
+
+    @Test
+    void findByCategory_UsesGinIndex() throws SQLException {
+        assertIndexScan("SELECT * FROM file_metadata WHERE categories @> to_jsonb(ARRAY['category3']::text[]) AND purge_job_id IS NULL",
+                "idx_file_metadata_categories_gin");
+    }
+
+    @Test
+    void userRecycleBinListing_UsesCompositeIndex() throws SQLException {
+        assertIndexScan("SELECT * FROM file_metadata WHERE user_id = 'user7' AND is_moved_to_recycle_bin = true " +
+                "ORDER BY modified_at DESC", "idx_file_metadata_user_recycled_modified");
+    }
+
+    @Test
+    void fileNameLookupPerUser_UsesUniqueIndex() throws SQLException {
+        assertIndexScan("SELECT * FROM file_metadata WHERE user_id = 'user7' AND file_name = 'file-7.pdf' AND purge_job_id IS NULL",
+                "uq_file_metadata_user_file_name");
+    }
+
+    @Test
+    void recycleBinExpiryScan_UsesPartialIndex() throws SQLException {
+        assertIndexScan("SELECT id AS id, user_id AS userId FROM file_metadata " +
+                "WHERE is_moved_to_recycle_bin = true AND purge_job_id IS NULL AND user_id IS NOT NULL " +
+                "AND recycled_at < now() - interval '1 day' AND abs(hashtext(user_id)::bigint) % 16 = 3 " +
+                "ORDER BY recycled_at LIMIT 500", "idx_file_metadata_recycle_bin_recycled_at");
+    }
+
+    @Test
+    void recycleBinStampScan_UsesPartialIndex() throws SQLException {
+        assertIndexScan("SELECT id FROM file_metadata " +
+                "WHERE is_moved_to_recycle_bin = true AND purge_job_id IS NULL AND recycled_at IS NULL",
+                "idx_file_metadata_recycle_bin_recycled_at");
+    }
+
+    @Test
+    void purgeJobBatch_UsesPartialIndex() throws SQLException {
+        assertIndexScan("SELECT * FROM file_metadata WHERE purge_job_id = '00000000-0000-0000-0000-000000000001' LIMIT 4000",
+                "idx_file_metadata_purge_job_id");
+    }
+
+    private static void assertIndexScan(String sql, String expectedIndex) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+            try (ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+        }
+        assertFalse(plan.toString().contains("Seq Scan on file_metadata"), () -> "Sequential scan in plan:\n" + plan);
+        assertTrue(plan.toString().contains(expectedIndex), () -> "Expected " + expectedIndex + " in plan:\n" + plan);
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+}
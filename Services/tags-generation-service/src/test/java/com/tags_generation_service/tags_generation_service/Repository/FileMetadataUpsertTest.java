@@ -0,0 +1,100 @@
+package com.tags_generation_service.tags_generation_service.Repository;
+
+import com.tags_generation_service.tags_generation_service.Model.FileMetadataPostgres;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises the ON CONFLICT path of upsertMetadata against the migrated schema.
+ * Hibernate runs with ddl-auto=validate, as in the deployment, so the context
+ * only starts if the entities match what Flyway built.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class FileMetadataUpsertTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private FileMetadataPostgresRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void upsert_NewFile_ShouldInsert() {
+        FileMetadataPostgres saved = upsert("user1", "report.pdf", "application/pdf", 100L);
+
+        Map<String, Object> row = row(saved.getId());
+        assertEquals("report.pdf", row.get("file_name"));
+        assertEquals(false, row.get("is_moved_to_recycle_bin"));
+    }
+
+    @Test
+    void upsert_SameName_ShouldUpdateRowInPlaceAndTakeItOutOfTheRecycleBin() {
+        FileMetadataPostgres first = upsert("user2", "notes.txt", "text/plain", 100L);
+        jdbcTemplate.update("UPDATE file_metadata SET is_moved_to_recycle_bin = true, recycled_at = now(), is_starred = true WHERE id = ?", first.getId());
+
+        FileMetadataPostgres second = upsert("user2", "notes.txt", "text/markdown", 250L);
+
+        assertEquals(first.getId(), second.getId());
+        Map<String, Object> row = row(first.getId());
+        assertEquals("text/markdown", row.get("file_type"));
+        assertEquals(250L, row.get("file_size"));
+        assertEquals(false, row.get("is_moved_to_recycle_bin"));
+        assertNull(row.get("recycled_at"));
+        assertEquals(true, row.get("is_starred"));
+        assertEquals(1, count("user2", "notes.txt"));
+    }
+
+    @Test
+    void upsert_WhileOldRowIsBeingPurged_ShouldInsertFreshRowAndLeaveTheOldOne() {
+        FileMetadataPostgres old = upsert("user3", "photo.jpg", "image/jpeg", 100L);
+        UUID jobId = UUID.randomUUID();
+        jdbcTemplate.update("UPDATE file_metadata SET purge_job_id = ? WHERE id = ?", jobId, old.getId());
+
+        FileMetadataPostgres fresh = upsert("user3", "photo.jpg", "image/jpeg", 300L);
+
+        assertNotEquals(old.getId(), fresh.getId());
+        assertEquals(jobId, row(old.getId()).get("purge_job_id"));
+        assertNull(row(fresh.getId()).get("purge_job_id"));
+        assertEquals(2, count("user3", "photo.jpg"));
+    }
+
+    private FileMetadataPostgres upsert(String userId, String fileName, String fileType, long size) {
+        return repository.upsertMetadata(UUID.randomUUID(), fileName, fileType, "[\"tag\"]", "[\"category\"]",
+                "summary", userId + "/" + fileName, userId, userId + "@example.com", size);
+    }
+
+    private Map<String, Object> row(UUID id) {
+        return jdbcTemplate.queryForMap("SELECT * FROM file_metadata WHERE id = ?", id);
+    }
+
+    private int count(String userId, String fileName) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM file_metadata WHERE user_id = ? AND file_name = ?",
+                Integer.class, userId, fileName);
+    }
+}
@@ -0,0 +1,123 @@
+package com.tags_generation_service.tags_generation_service.Service;
+
+import com.tags_generation_service.tags_generation_service.Dto.ExtractedContent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentExtractionServiceTest {
+
+    private ExecutorService executor;
+    private ContentExtractionService extractionService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        extractionService = new ContentExtractionService(executor);
+        ReflectionTestUtils.setField(extractionService, "maxContentLength", 100);
+        ReflectionTestUtils.setField(extractionService, "parseTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(extractionService, "queueTimeout", Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void extract_LongDocument_ShouldStopAtLimit() throws Exception {
+        InputStream stream = text("lorem ipsum ".repeat(100_000));
+
+        ExtractedContent content = extractionService.extract(stream, "big.txt");
+
+        assertTrue(content.truncated());
+        assertTrue(content.text().length() <= 100);
+    }
+
+    @Test
+    void extract_ShortDocument_ShouldReturnWholeText() throws Exception {
+        ExtractedContent content = extractionService.extract(text("hello world"), "small.txt");
+
+        assertFalse(content.truncated());
+        assertEquals("hello world", content.text().trim());
+    }
+
+    @Test
+    void extract_SlowSource_ShouldFailInsteadOfReturningPartialText() {
+        ReflectionTestUtils.setField(extractionService, "parseTimeout", Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        IOException e = assertThrows(IOException.class, () -> extractionService.extract(slowSource(), "slow.txt"));
+
+        assertTrue(e.getMessage().contains("exceeded"));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+    }
+
+    @Test
+    void sample_SlowSource_ShouldFailSoTheSecurityScanRejectsIt() {
+        ReflectionTestUtils.setField(extractionService, "parseTimeout", Duration.ofMillis(200));
+        ReflectionTestUtils.setField(extractionService, "sampleBudget", 3000);
+        ReflectionTestUtils.setField(extractionService, "sampleMaxScanChars", 2_000_000L);
+
+        assertThrows(IOException.class, () -> extractionService.sample(slowSource(), "slow.txt"));
+    }
+
+    @Test
+    void extract_QueuedBehindSlowParse_ShouldGetItsOwnBudget() throws Exception {
+        extractionService.extract(text("warm up"), "warmup.txt");
+        ReflectionTestUtils.setField(extractionService, "parseTimeout", Duration.ofMillis(200));
+        CountDownLatch release = new CountDownLatch(1);
+        // Occupies the single pool thread for longer than one parse budget.
+        executor.submit(() -> release.await(500, TimeUnit.MILLISECONDS));
+
+        ExtractedContent content = extractionService.extract(text("hello world"), "queued.txt");
+
+        assertEquals("hello world", content.text().trim());
+    }
+
+    @Test
+    void extract_PoolNeverFreesUp_ShouldFailAfterQueueTimeout() {
+        ReflectionTestUtils.setField(extractionService, "queueTimeout", Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> release.await(10, TimeUnit.SECONDS));
+        try {
+            IOException e = assertThrows(IOException.class,
+                    () -> extractionService.extract(text("hello world"), "queued.txt"));
+            assertTrue(e.getMessage().contains("saturated"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static InputStream slowSource() {
+        return new InputStream() {
+            @Override
+            public int read() {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return -1;
+                }
+                return 'a';
+            }
+        };
+    }
+
+    private static InputStream text(String value) {
+        return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,7 +1,9 @@
 package com.tags_generation_service.tags_generation_service.Service;
 
-import com.tags_generation_service.tags_generation_service.Model.FileMetadataPostgres;
+import com.tags_generation_service.tags_generation_service.Model.PurgeJob;
+import com.tags_generation_service.tags_generation_service.Model.PurgeJobStatus;
 import com.tags_generation_service.tags_generation_service.Repository.FileMetadataPostgresRepository;
+import com.tags_generation_service.tags_generation_service.Repository.PurgeJobRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,77 +22,67 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class DeletePermanentlyTest {
 
+    private static final String USER_ID = "42";
+
     @Mock
     private FileMetadataPostgresRepository repository;
 
     @Mock
-    private QueueService queueService;
+    private PurgeJobRepository purgeJobRepository;
 
     @Mock
-    private S3Service s3Service;
+    private QueueService queueService;
 
     @InjectMocks
     private DeletePermanently deletePermanently;
 
     private List<UUID> fileIds;
-    private List<FileMetadataPostgres> files;
 
     @BeforeEach
     void setUp() {
-        UUID id1 = UUID.randomUUID();
-        UUID id2 = UUID.randomUUID();
-        fileIds = Arrays.asList(id1, id2);
-
-        FileMetadataPostgres file1 = new FileMetadataPostgres();
-        file1.setId(id1);
-        file1.setS3Location("https://bucket.s3.region.amazonaws.com/user123/file1.pdf");
-        file1.setThumbnailS3Location("https://bucket.s3.region.amazonaws.com/user123/thumb1.jpg");
-
-        FileMetadataPostgres file2 = new FileMetadataPostgres();
-        file2.setId(id2);
-        file2.setS3Location("https://bucket.s3.region.amazonaws.com/user123/file2.pdf");
-
-        files = Arrays.asList(file1, file2);
+        fileIds = Arrays.asList(UUID.randomUUID(), UUID.randomUUID());
     }
 
     @Test
-    void deleteFilePermanently_ValidFiles_ShouldDeleteSuccessfully() {
+    void deleteFilePermanently_ValidFiles_ShouldCreatePendingJob() {
         // Arrange
-        when(repository.findAllById(fileIds)).thenReturn(files);
-
-        Boolean result = deletePermanently.DeleteFilePermanently(fileIds);
+        when(repository.markForPurge(any(UUID[].class), eq(USER_ID), any(UUID.class))).thenReturn(fileIds);
+        when(purgeJobRepository.save(any(PurgeJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
+        // Act
+        PurgeJob job = deletePermanently.DeleteFilePermanently(fileIds, USER_ID);
 
-        assertTrue(result);
-
-        verify(s3Service, times(2)).deleteFiles(anyList());
-
-        verify(repository, times(1)).deleteAllById(fileIds);
-        verify(queueService, times(2)).deleteFileRequest(anyString());
+        // Assert
+        assertNotNull(job);
+        assertEquals(PurgeJobStatus.PENDING, job.getStatus());
+        assertEquals(2, job.getTotalFiles());
+        assertEquals(0, job.getDeletedFiles());
+        verify(repository, never()).deleteAllById(any());
+        verify(queueService, times(1)).deleteFileRequests(fileIds);
     }
 
     @Test
-    void deleteFilePermanently_EmptyList_ShouldReturnFalse() {
+    void deleteFilePermanently_EmptyList_ShouldReturnNull() {
         // Act
-        Boolean result = deletePermanently.DeleteFilePermanently(Arrays.asList());
+        PurgeJob job = deletePermanently.DeleteFilePermanently(Arrays.asList(), USER_ID);
 
         // Assert
-        assertFalse(result);
-        verify(repository, never()).findAllById(any());
-        verify(s3Service, never()).deleteFiles(any());
+        assertNull(job);
+        verify(repository, never()).markForPurge(any(), any(), any());
+        verify(purgeJobRepository, never()).save(any());
     }
 
     @Test
-    void deleteFilePermanently_NoFilesFound_ShouldReturnFalse() {
+    void deleteFilePermanently_NoFilesFound_ShouldReturnNull() {
         // Arrange
-        when(repository.findAllById(fileIds)).thenReturn(Arrays.asList());
+        when(repository.markForPurge(any(UUID[].class), eq(USER_ID), any(UUID.class))).thenReturn(List.of());
 
         // Act
-        Boolean result = deletePermanently.DeleteFilePermanently(fileIds);
+        PurgeJob job = deletePermanently.DeleteFilePermanently(fileIds, USER_ID);
 
         // Assert
-        assertFalse(result);
-        verify(s3Service, never()).deleteFiles(any());
-        verify(repository, never()).deleteAllById(any());
+        assertNull(job);
+        verify(purgeJobRepository, never()).save(any());
+        verify(queueService, never()).deleteFileRequests(any());
     }
-}
\ No newline at end of file
+}
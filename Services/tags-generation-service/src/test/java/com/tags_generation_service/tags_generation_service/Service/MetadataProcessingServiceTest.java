@@ -0,0 +1,87 @@
+package com.tags_generation_service.tags_generation_service.Service;
+
+import com.tags_generation_service.tags_generation_service.Dto.ExtractionHandoff;
+import com.tags_generation_service.tags_generation_service.Dto.MetadataAnalysis;
+import com.tags_generation_service.tags_generation_service.Model.FileMetadataPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MetadataProcessingServiceTest {
+
+    @Mock private S3Service s3Service;
+    @Mock private PostgresService postgresService;
+    @Mock private QueueService queueService;
+    @Mock private ContentExtractionService contentExtractionService;
+    @Mock private ImagePreprocessingService imagePreprocessingService;
+    @Mock private MediaSamplingService mediaSamplingService;
+    @Mock private StructuredOutputParser structuredOutputParser;
+
+    private MetadataProcessingService service;
+
+    private final MetadataAnalysis analysis = new MetadataAnalysis(List.of("meeting"), List.of("Work"), "Meeting notes.");
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new MetadataProcessingService(Map.of(), s3Service, postgresService, queueService,
+                contentExtractionService, imagePreprocessingService, mediaSamplingService, structuredOutputParser);
+        lenient().when(postgresService.upsertMetadata(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void processMetadataRequest_Precomputed_ShouldDeleteUnreadSidecar() throws Exception {
+        // Arrange
+        ExtractionHandoff extraction = new ExtractionHandoff("text/plain", null, true, "_extracted/user-1/notes.txt.txt.gz");
+
+        // Act
+        service.processMetadataRequest("notes.txt", "text", "s3://notes.txt", "user-1", 100L, "a@b.c", extraction, analysis);
+
+        // Assert
+        verify(s3Service).deleteCompressed("_extracted/user-1/notes.txt.txt.gz");
+        verify(s3Service, never()).consumeCompressedText(anyString());
+        ArgumentCaptor<FileMetadataPostgres> saved = ArgumentCaptor.forClass(FileMetadataPostgres.class);
+        verify(postgresService).upsertMetadata(saved.capture());
+        assertEquals(List.of("meeting"), saved.getValue().getTags());
+    }
+
+    @Test
+    void processMetadataRequest_PrecomputedWithInlineText_ShouldNotTouchS3() throws Exception {
+        // Arrange
+        ExtractionHandoff extraction = new ExtractionHandoff("text/plain", "meeting notes", false, null);
+
+        // Act
+        service.processMetadataRequest("notes.txt", "text", "s3://notes.txt", "user-1", 100L, "a@b.c", extraction, analysis);
+
+        // Assert
+        verifyNoInteractions(s3Service);
+        verify(postgresService).upsertMetadata(any());
+    }
+
+    @Test
+    void processMetadataRequest_PrecomputedWithoutSummary_ShouldStoreNullSummary() throws Exception {
+        // Arrange
+        ExtractionHandoff extraction = new ExtractionHandoff("text/plain", "meeting notes", false, null);
+        MetadataAnalysis withoutSummary = new MetadataAnalysis(List.of("meeting"), List.of("Work"), null);
+
+        // Act
+        service.processMetadataRequest("notes.txt", "text", "s3://notes.txt", "user-1", 100L, "a@b.c", extraction, withoutSummary);
+
+        // Assert
+        ArgumentCaptor<FileMetadataPostgres> saved = ArgumentCaptor.forClass(FileMetadataPostgres.class);
+        verify(postgresService).upsertMetadata(saved.capture());
+        assertNull(saved.getValue().getSummary());
+    }
+}
@@ -1,5 +1,5 @@
 package com.tags_generation_service.tags_generation_service.Service;// Services/tags-generation-service/src/test/java/com/tags_generation_service/tags_generation_service/Service/MoveToRecycleBinAndRestoreServiceTest.java
-import com.tags_generation_service.tags_generation_service.Model.FileMetadataPostgres;
+import com.tags_generation_service.tags_generation_service.Dto.FileBulkUpdateEvent;
 import com.tags_generation_service.tags_generation_service.Repository.FileMetadataPostgresRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,12 +14,14 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class MoveToRecycleBinAndRestoreServiceTest {
 
+    private static final String USER_ID = "42";
+
     @Mock
     private FileMetadataPostgresRepository repository;
 
@@ -30,70 +32,69 @@ class MoveToRecycleBinAndRestoreServiceTest {
     private MoveToRecycleBinAndRestoreService service;
 
     @Captor
-    private ArgumentCaptor<List<FileMetadataPostgres>> filesCaptor;
+    private ArgumentCaptor<FileBulkUpdateEvent> eventCaptor;
 
     private List<UUID> fileIds;
-    private List<FileMetadataPostgres> files;
 
     @BeforeEach
     void setUp() {
-        UUID id1 = UUID.randomUUID();
-        UUID id2 = UUID.randomUUID();
-        fileIds = Arrays.asList(id1, id2);
-
-        FileMetadataPostgres file1 = new FileMetadataPostgres();
-        file1.setId(id1);
-        file1.setIsMovedToRecycleBin(false);
-
-        FileMetadataPostgres file2 = new FileMetadataPostgres();
-        file2.setId(id2);
-        file2.setIsMovedToRecycleBin(false);
-
-        files = Arrays.asList(file1, file2);
+        fileIds = Arrays.asList(UUID.randomUUID(), UUID.randomUUID());
     }
 
     @Test
     void moveToRecycleBin_ValidFiles_ShouldMoveSuccessfully() {
         // Arrange
-        when(repository.findAllById(fileIds)).thenReturn(files);
-        when(repository.saveAll(any())).thenReturn(files);
+        when(repository.updateRecycleBinStatus(any(UUID[].class), eq(USER_ID), eq(true))).thenReturn(fileIds);
 
         // Act
-        Boolean result = service.moveToRecycleBin(fileIds);
+        Boolean result = service.moveToRecycleBin(fileIds, USER_ID);
 
         // Assert
         assertTrue(result);
-        verify(repository, times(1)).saveAll(filesCaptor.capture());
-        List<FileMetadataPostgres> savedFiles = filesCaptor.getValue();
-        assertTrue(savedFiles.stream().allMatch(FileMetadataPostgres::getIsMovedToRecycleBin));
-        verify(queueService, times(2)).publishFileRequest(any());
+        verify(repository, never()).findAllById(any());
+        verify(repository, never()).saveAll(any());
+        verify(queueService, times(1)).publishBulkUpdate(eventCaptor.capture());
+        FileBulkUpdateEvent event = eventCaptor.getValue();
+        assertEquals(USER_ID, event.getUserId());
+        assertEquals(fileIds, event.getFileIds());
+        assertTrue(event.getIsMovedToRecycleBin());
+        verify(queueService, never()).publishFileRequest(any());
     }
 
     @Test
     void moveToRecycleBin_EmptyList_ShouldReturnFalse() {
         // Act
-        Boolean result = service.moveToRecycleBin(Arrays.asList());
+        Boolean result = service.moveToRecycleBin(Arrays.asList(), USER_ID);
 
         // Assert
         assertFalse(result);
-        verify(repository, never()).saveAll(any());
+        verify(repository, never()).updateRecycleBinStatus(any(), any(), anyBoolean());
+    }
+
+    @Test
+    void moveToRecycleBin_NoOwnedFiles_ShouldReturnFalse() {
+        // Arrange
+        when(repository.updateRecycleBinStatus(any(UUID[].class), eq(USER_ID), eq(true))).thenReturn(List.of());
+
+        // Act
+        Boolean result = service.moveToRecycleBin(fileIds, USER_ID);
+
+        // Assert
+        assertFalse(result);
+        verify(queueService, never()).publishBulkUpdate(any());
     }
 
     @Test
     void restoreFiles_ValidFiles_ShouldRestoreSuccessfully() {
         // Arrange
-        files.forEach(f -> f.setIsMovedToRecycleBin(true));
-        when(repository.findAllById(fileIds)).thenReturn(files);
-        when(repository.saveAll(any())).thenReturn(files);
+        when(repository.updateRecycleBinStatus(any(UUID[].class), eq(USER_ID), eq(false))).thenReturn(fileIds);
 
         // Act
-        Boolean result = service.RestoreFiles(fileIds);
+        Boolean result = service.RestoreFiles(fileIds, USER_ID);
 
         // Assert
         assertTrue(result);
-        verify(repository, times(1)).saveAll(filesCaptor.capture());
-        List<FileMetadataPostgres> savedFiles = filesCaptor.getValue();
-        assertTrue(savedFiles.stream().noneMatch(FileMetadataPostgres::getIsMovedToRecycleBin));
-        verify(queueService, times(2)).publishFileRequest(any());
+        verify(queueService, times(1)).publishBulkUpdate(eventCaptor.capture());
+        assertFalse(eventCaptor.getValue().getIsMovedToRecycleBin());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,184 @@
+package com.tags_generation_service.tags_generation_service.Service;
+
+import com.tags_generation_service.tags_generation_service.Model.FileMetadataPostgres;
+import com.tags_generation_service.tags_generation_service.Model.PurgeJob;
+import com.tags_generation_service.tags_generation_service.Model.PurgeJobStatus;
+import com.tags_generation_service.tags_generation_service.Repository.FileMetadataPostgresRepository;
+import com.tags_generation_service.tags_generation_service.Repository.PurgeJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PurgeJobWorkerTest {
+
+    @Mock
+    private FileMetadataPostgresRepository repository;
+
+    @Mock
+    private PurgeJobRepository purgeJobRepository;
+
+    @Mock
+    private S3Service s3Service;
+
+    @Mock
+    private QueueService queueService;
+
+    private ExecutorService executor;
+    private PurgeJobWorker worker;
+    private PurgeJob job;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        worker = new PurgeJobWorker(repository, purgeJobRepository, s3Service, executor, queueService);
+        ReflectionTestUtils.setField(worker, "batchSize", 4000);
+        ReflectionTestUtils.setField(worker, "maxAttempts", 5);
+        ReflectionTestUtils.setField(worker, "retryBackoffMs", 30_000L);
+        ReflectionTestUtils.setField(worker, "maxRetryBackoffMs", 1_800_000L);
+        job = PurgeJob.builder().id(UUID.randomUUID()).attempts(1).deletedFiles(0).totalFiles(1200).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void chunkByKeys_ShouldNeverExceedS3Limit() {
+        List<FileMetadataPostgres> files = files(1200, true);
+
+        List<PurgeJobWorker.DeleteChunk> chunks = PurgeJobWorker.chunkByKeys(files);
+
+        assertEquals(3, chunks.size());
+        assertTrue(chunks.stream().allMatch(c -> c.keys().size() <= S3Service.MAX_KEYS_PER_DELETE));
+        assertEquals(1200, chunks.stream().mapToInt(c -> c.fileIds().size()).sum());
+    }
+
+    @Test
+    void runJob_AllChunksSucceed_ShouldDeleteRowsAndComplete() {
+        List<FileMetadataPostgres> files = files(1200, false);
+        when(repository.findByPurgeJobId(eq(job.getId()), any(Pageable.class)))
+                .thenReturn(files)
+                .thenReturn(List.of());
+
+        worker.runJob(job);
+
+        verify(s3Service, times(2)).deleteFiles(anyList());
+        verify(purgeJobRepository, times(2)).heartbeat(eq(job.getId()), any());
+        verify(repository, times(1)).deleteAllByIdIn(argThat(ids -> ids.length == 1200));
+        verify(purgeJobRepository).recordProgress(eq(job.getId()), eq(1200), any());
+        verify(purgeJobRepository).markCompleted(eq(job.getId()), any());
+    }
+
+    @Test
+    void runJob_S3Failure_ShouldKeepFailedRowsAndReleaseJob() {
+        List<FileMetadataPostgres> files = files(1200, false);
+        when(repository.findByPurgeJobId(eq(job.getId()), any(Pageable.class))).thenReturn(files);
+        doNothing().doThrow(new RuntimeException("S3 down")).when(s3Service).deleteFiles(anyList());
+
+        worker.runJob(job);
+
+        verify(repository, times(1)).deleteAllByIdIn(argThat(ids -> ids.length < 1200));
+        verify(purgeJobRepository, never()).markCompleted(any(), any());
+        verify(purgeJobRepository).scheduleRetry(eq(job.getId()), anyString(),
+                argThat(next -> next.getTime() > System.currentTimeMillis()), any());
+        verify(purgeJobRepository, never()).updateStatus(any(), any(), any(), any());
+    }
+
+    @Test
+    void runJob_LastAttemptFails_ShouldMarkFailed() {
+        job.setAttempts(5);
+        when(repository.findByPurgeJobId(eq(job.getId()), any(Pageable.class))).thenReturn(files(10, false));
+        doThrow(new RuntimeException("S3 down")).when(s3Service).deleteFiles(anyList());
+
+        worker.runJob(job);
+
+        verify(purgeJobRepository).updateStatus(eq(job.getId()), eq(PurgeJobStatus.FAILED), anyString(), any());
+        verify(purgeJobRepository, never()).scheduleRetry(any(), any(), any(), any());
+    }
+
+    @Test
+    void pollPurgeJobs_StaleJobOverAttemptLimit_ShouldFailWithoutRunning() {
+        job.setAttempts(6);
+        when(purgeJobRepository.claimNextJob(any())).thenReturn(Optional.of(job));
+
+        worker.pollPurgeJobs();
+
+        verify(purgeJobRepository).updateStatus(eq(job.getId()), eq(PurgeJobStatus.FAILED), anyString(), any());
+        verifyNoInteractions(repository, s3Service);
+    }
+
+    @Test
+    void retryDelayMs_ShouldDoubleUpToCap() {
+        assertEquals(30_000L, worker.retryDelayMs(1));
+        assertEquals(60_000L, worker.retryDelayMs(2));
+        assertEquals(240_000L, worker.retryDelayMs(4));
+        assertEquals(1_800_000L, worker.retryDelayMs(30));
+    }
+
+    @Test
+    void runJob_KeyStillReferencedByLiveRow_ShouldKeepObjectButDropRow() {
+        List<FileMetadataPostgres> files = files(2, false);
+        files.forEach(file -> file.setFileName("report.pdf"));
+        FileMetadataPostgresRepository.StoredObjects live = mock(FileMetadataPostgresRepository.StoredObjects.class);
+        when(live.getS3Location()).thenReturn("user123/file0.pdf");
+        when(repository.findLiveObjects(any(), any())).thenReturn(List.of(live));
+        when(repository.findByPurgeJobId(eq(job.getId()), any(Pageable.class)))
+                .thenReturn(files)
+                .thenReturn(List.of());
+
+        worker.runJob(job);
+
+        verify(s3Service).deleteFiles(List.of("user123/file1.pdf"));
+        verify(repository).deleteAllByIdIn(argThat(ids -> ids.length == 2));
+        // Only file1's object was deleted, so only its bytes are freed.
+        verify(queueService).publishStorageUsage(argThat(event -> event.deltaBytes() == -10L));
+        verify(purgeJobRepository).markCompleted(eq(job.getId()), any());
+    }
+
+    @Test
+    void runJob_ShouldPublishFreedBytesPerUser() {
+        List<FileMetadataPostgres> files = files(1200, false);
+        when(repository.findByPurgeJobId(eq(job.getId()), any(Pageable.class)))
+                .thenReturn(files)
+                .thenReturn(List.of());
+
+        worker.runJob(job);
+
+        verify(queueService, times(1)).publishStorageUsage(argThat(event ->
+                event.userId().equals("user123") && event.deltaBytes() == -12_000L));
+    }
+
+    private List<FileMetadataPostgres> files(int count, boolean withThumbnails) {
+        List<FileMetadataPostgres> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            FileMetadataPostgres file = new FileMetadataPostgres();
+            file.setId(UUID.randomUUID());
+            file.setUserId("user123");
+            file.setFileSize(10L);
+            file.setS3Location("https://bucket.s3.region.amazonaws.com/user123/file" + i + ".pdf");
+            if (withThumbnails) {
+                file.setThumbnailS3Location("https://bucket.s3.region.amazonaws.com/user123/thumb" + i + ".jpg");
+            }
+            files.add(file);
+        }
+        return files;
+    }
+}
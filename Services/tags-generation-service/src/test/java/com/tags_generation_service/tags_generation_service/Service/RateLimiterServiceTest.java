@@ -0,0 +1,162 @@
+package com.tags_generation_service.tags_generation_service.Service;
+
+import com.tags_generation_service.tags_generation_service.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimiterServiceTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private RateLimitProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimiterService rateLimiterService;
+    private RateLimitProperties.Rule rule;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiterService = new RateLimiterService(redisTemplate, properties, meterRegistry);
+        rule = RateLimitProperties.Rule.of("search", "/api/search", "GET", 60, Duration.ofMinutes(1));
+        setTime(START);
+    }
+
+    @Test
+    void resolveRule_ShouldPickFirstMatchingRule() {
+        assertEquals("download", rateLimiterService.resolveRule("POST", "/api/DownloadFiles").orElseThrow().getName());
+        assertEquals("purge", rateLimiterService.resolveRule("DELETE", "/api/PermanentlyDeleteFiles").orElseThrow().getName());
+        assertEquals("default", rateLimiterService.resolveRule("GET", "/api/DownloadFiles").orElseThrow().getName());
+        assertTrue(rateLimiterService.resolveRule("GET", "/actuator/health").isEmpty());
+    }
+
+    @Test
+    void resolveRule_WhenDisabled_ShouldMatchNothing() {
+        properties.setEnabled(false);
+
+        assertTrue(rateLimiterService.resolveRule("POST", "/api/DownloadFiles").isEmpty());
+    }
+
+    @Test
+    void tryAcquire_ShouldSpendLeasedTokensLocally() {
+        stubScript(5L, 0L);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(rateLimiterService.tryAcquire(rule, "user:1").allowed());
+        }
+
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), eq(List.of("ratelimit:tags:search:user:1")),
+                eq("60"), anyString(), eq("5"));
+    }
+
+    @Test
+    void tryAcquire_WhenLeaseExpired_ShouldAskRedisAgain() {
+        stubScript(5L, 0L);
+
+        rateLimiterService.tryAcquire(rule, "user:1");
+        setTime(START.plusMillis(properties.getLeaseTtl().toMillis()));
+        rateLimiterService.tryAcquire(rule, "user:1");
+
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), any(), any(), any());
+    }
+
+    @Test
+    void tryAcquire_WhenBucketEmpty_ShouldRejectLocallyUntilRetryAfter() {
+        stubScript(0L, 2500L);
+
+        RateLimiterService.Decision first = rateLimiterService.tryAcquire(rule, "user:1");
+        setTime(START.plusMillis(1000));
+        RateLimiterService.Decision second = rateLimiterService.tryAcquire(rule, "user:1");
+
+        assertFalse(first.allowed());
+        assertEquals(3, first.retryAfterSeconds());
+        assertFalse(second.allowed());
+        assertEquals(1500, second.retryAfterMillis());
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(), any(), any());
+        assertEquals(2.0, meterRegistry.counter("ratelimit.rejected", "rule", "search").count());
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepSeparateBucketsPerClient() {
+        stubScript(1L, 0L);
+
+        rateLimiterService.tryAcquire(rule, "user:1");
+        rateLimiterService.tryAcquire(rule, "user:2");
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("ratelimit:tags:search:user:1")),
+                any(), any(), any());
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("ratelimit:tags:search:user:2")),
+                any(), any(), any());
+    }
+
+    @Test
+    void tryAcquire_WhenRedisDown_ShouldFailOpenByDefault() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertTrue(rateLimiterService.tryAcquire(rule, "user:1").allowed());
+
+        properties.setFailOpen(false);
+        assertFalse(rateLimiterService.tryAcquire(rule, "user:1").allowed());
+    }
+
+    @Test
+    void tryAcquire_ConcurrentRequests_ShouldShareOneRedisCall() throws Exception {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return List.of(5L, 0L);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<RateLimiterService.Decision>> decisions = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                decisions.add(executor.submit(() -> rateLimiterService.tryAcquire(rule, "user:1")));
+            }
+
+            for (Future<RateLimiterService.Decision> decision : decisions) {
+                assertTrue(decision.get(5, TimeUnit.SECONDS).allowed());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(), any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubScript(long granted, long retryAfterMillis) {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any()))
+                .thenReturn(List.of(granted, retryAfterMillis));
+    }
+
+    private void setTime(Instant instant) {
+        ReflectionTestUtils.setField(rateLimiterService, "clock", Clock.fixed(instant, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,96 @@
+package com.tags_generation_service.tags_generation_service.Service;
+
+import com.tags_generation_service.tags_generation_service.Repository.FileMetadataPostgresRepository;
+import com.tags_generation_service.tags_generation_service.Repository.FileMetadataPostgresRepository.ExpiredFile;
+import com.tags_generation_service.tags_generation_service.config.RecycleBinSweeperProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecycleBinSweeperServiceTest {
+
+    @Mock
+    private FileMetadataPostgresRepository repository;
+
+    @Mock
+    private DeletePermanently deletePermanently;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private RecycleBinSweeperService sweeper;
+
+    @BeforeEach
+    void setUp() {
+        RecycleBinSweeperProperties properties = new RecycleBinSweeperProperties();
+        properties.setBatchSize(3);
+        properties.setPauseBetweenBatches(Duration.ZERO);
+        sweeper = new RecycleBinSweeperService(repository, deletePermanently, redisTemplate, properties);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void sweep_LockHeldByAnotherReplica_ShouldDoNothing() {
+        // Arrange
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+
+        // Act
+        sweeper.sweep();
+
+        // Assert
+        verify(repository, never()).stampUnstampedRecycled();
+        verify(repository, never()).findExpiredInRecycleBin(any(), anyInt(), anyInt(), anyInt());
+        verify(deletePermanently, never()).DeleteFilePermanently(any(), any());
+    }
+
+    @Test
+    void sweep_ExpiredFiles_ShouldPurgeGroupedByUser() {
+        // Arrange
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        when(valueOperations.increment(anyString())).thenReturn(5L);
+        UUID a1 = UUID.randomUUID();
+        UUID a2 = UUID.randomUUID();
+        UUID b1 = UUID.randomUUID();
+        when(repository.findExpiredInRecycleBin(any(), eq(5), eq(16), eq(3)))
+                .thenReturn(List.of(expired(a1, "a"), expired(b1, "b"), expired(a2, "a")))
+                .thenReturn(List.of());
+
+        // Act
+        sweeper.sweep();
+
+        // Assert
+        verify(repository).stampUnstampedRecycled();
+        verify(deletePermanently).DeleteFilePermanently(List.of(a1, a2), "a");
+        verify(deletePermanently).DeleteFilePermanently(List.of(b1), "b");
+        verify(redisTemplate).execute(any(), eq(List.of("recycle-bin:sweeper:lock")), anyString());
+    }
+
+    private ExpiredFile expired(UUID id, String userId) {
+        return new ExpiredFile() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getUserId() {
+                return userId;
+            }
+        };
+    }
+}
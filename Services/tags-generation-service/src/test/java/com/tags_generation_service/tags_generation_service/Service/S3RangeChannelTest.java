@@ -0,0 +1,76 @@
+package com.tags_generation_service.tags_generation_service.Service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class S3RangeChannelTest {
+
+    @Mock
+    private S3Client s3Client;
+
+    private final byte[] object = new byte[25];
+
+    private S3RangeChannel channel() {
+        for (int i = 0; i < object.length; i++) {
+            object[i] = (byte) i;
+        }
+        when(s3Client.getObjectAsBytes(any(GetObjectRequest.class))).thenAnswer(invocation -> {
+            String range = invocation.<GetObjectRequest>getArgument(0).range().substring("bytes=".length());
+            int from = Integer.parseInt(range.split("-")[0]);
+            int to = Integer.parseInt(range.split("-")[1]);
+            return ResponseBytes.fromByteArray(GetObjectResponse.builder().build(),
+                    Arrays.copyOfRange(object, from, to + 1));
+        });
+        return new S3RangeChannel(s3Client, "bucket", "key", object.length, 10, 2);
+    }
+
+    @Test
+    void read_AcrossBlocks_ShouldFetchOnlyTouchedRanges() {
+        S3RangeChannel channel = channel();
+        channel.setPosition(8);
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+
+        assertEquals(4, channel.read(buffer));
+
+        assertArrayEquals(new byte[]{8, 9, 10, 11}, buffer.array());
+        ArgumentCaptor<GetObjectRequest> requests = ArgumentCaptor.forClass(GetObjectRequest.class);
+        verify(s3Client, times(2)).getObjectAsBytes(requests.capture());
+        assertEquals("bytes=0-9", requests.getAllValues().get(0).range());
+        assertEquals("bytes=10-19", requests.getAllValues().get(1).range());
+    }
+
+    @Test
+    void read_CachedBlock_ShouldNotFetchAgain() {
+        S3RangeChannel channel = channel();
+
+        channel.read(ByteBuffer.allocate(3));
+        channel.setPosition(5);
+        channel.read(ByteBuffer.allocate(3));
+
+        verify(s3Client, times(1)).getObjectAsBytes(any(GetObjectRequest.class));
+    }
+
+    @Test
+    void read_PastEnd_ShouldReturnShortThenEndOfStream() {
+        S3RangeChannel channel = channel();
+        channel.setPosition(22);
+
+        assertEquals(3, channel.read(ByteBuffer.allocate(10)));
+        assertEquals(-1, channel.read(ByteBuffer.allocate(10)));
+    }
+}
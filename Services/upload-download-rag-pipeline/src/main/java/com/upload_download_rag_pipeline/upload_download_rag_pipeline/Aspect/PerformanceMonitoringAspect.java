@@ -7,8 +7,20 @@ import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times service methods as {@code method.execution.time}. Each method's timers are
+ * registered on its first call and cached, so later calls cost a map lookup and
+ * two clock reads. Controllers are not wrapped: endpoint latency, with percentile
+ * histograms and SLO buckets, comes from Spring's {@code http.server.requests}.
+ */
 @Slf4j
 @Aspect
 @Component
@@ -16,41 +28,47 @@ import org.springframework.stereotype.Component;
 public class PerformanceMonitoringAspect {
 
     private final MeterRegistry meterRegistry;
+    private final Map<Method, MethodTimers> timers = new ConcurrentHashMap<>();
 
     @Around("@annotation(com.common.annotation.MonitorPerformance) || " +
-            "execution(* com..Controllers..*(..)) || " +
             "execution(* com..Service..*(..))")
     public Object monitorPerformance(ProceedingJoinPoint joinPoint) throws Throwable {
-        String className = joinPoint.getSignature().getDeclaringTypeName();
-        String methodName = joinPoint.getSignature().getName();
-        String metricName = String.format("%s.%s", className, methodName);
-
-        Timer.Sample sample = Timer.start(meterRegistry);
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        MethodTimers methodTimers = timers.get(signature.getMethod());
+        if (methodTimers == null) {
+            methodTimers = timers.computeIfAbsent(signature.getMethod(), this::register);
+        }
 
+        long start = System.nanoTime();
         try {
             Object result = joinPoint.proceed();
-
-            sample.stop(Timer.builder("method.execution.time")
-                    .tag("class", className)
-                    .tag("method", methodName)
-                    .tag("status", "success")
-                    .register(meterRegistry));
-
+            methodTimers.success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             return result;
         } catch (Exception e) {
-            sample.stop(Timer.builder("method.execution.time")
-                    .tag("class", className)
-                    .tag("method", methodName)
-                    .tag("status", "failure")
-                    .register(meterRegistry));
+            methodTimers.failure().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
+            // Tagged by exception type, so looked up only when something fails
             meterRegistry.counter("method.execution.errors",
-                            "class", className,
-                            "method", methodName,
+                            "class", signature.getDeclaringTypeName(),
+                            "method", signature.getName(),
                             "exception", e.getClass().getSimpleName())
                     .increment();
 
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    private MethodTimers register(Method method) {
+        return new MethodTimers(timer(method, "success"), timer(method, "failure"));
+    }
+
+    private Timer timer(Method method, String status) {
+        return Timer.builder("method.execution.time")
+                .tag("class", method.getDeclaringClass().getName())
+                .tag("method", method.getName())
+                .tag("status", status)
+                .register(meterRegistry);
+    }
+
+    private record MethodTimers(Timer success, Timer failure) {}
+}
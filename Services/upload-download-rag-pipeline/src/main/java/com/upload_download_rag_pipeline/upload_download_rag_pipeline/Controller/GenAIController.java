@@ -1,6 +1,10 @@
 package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Controller;
 
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Exception.BusinessException;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Model.Plan;
 import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Model.ProcessedDocument;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service.PlanService;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service.UploadAdmissionScheduler;
 import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service.UploadService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +14,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.codec.multipart.FilePart;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
@@ -25,6 +30,8 @@ import java.nio.file.StandardOpenOption;
 public class GenAIController {
 
     private final UploadService uploadService;
+    private final UploadAdmissionScheduler admissionScheduler;
+    private final PlanService planService;
 
     @PostMapping(
             value = "/process",
@@ -32,13 +39,37 @@ public class GenAIController {
             produces = MediaType.APPLICATION_JSON_VALUE
     )
     public Mono<ResponseEntity<ProcessedDocument>> processFile(
-            @RequestPart("file") FilePart file,
+            @RequestPart("file") Mono<FilePart> filePart,
             @org.springframework.security.core.annotation.AuthenticationPrincipal Jwt jwt
     ) {
         final String userId = resolveUserId(jwt);
 
-        log.info("Receiving file for processing (reactive): filename={} userId={}", file.filename(), userId);
+        // The multipart body is only read once filePart is subscribed, inside the permit, so a flood from one
+        // user waits in its own queue without anything being parsed or written to disk.
+        return Mono.fromCallable(() -> planService.resolvePlan(userId, jwt))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(plan -> Mono.usingWhen(
+                        admissionScheduler.acquire(userId, plan),
+                        permit -> filePart.flatMap(file -> {
+                            log.info("Receiving file for processing (reactive): filename={} userId={}", file.filename(), userId);
+                            return spoolAndProcess(file, userId, jwt, plan);
+                        }),
+                        permit -> Mono.fromRunnable(permit::release)))
+                .onErrorResume(BusinessException.class, ex -> {
+                    log.warn("Upload rejected for user {}: {}", userId, ex.getMessage());
+                    return Mono.just(ResponseEntity.status(ex.getStatus()).build());
+                })
+                .onErrorResume(ResponseStatusException.class, ex -> {
+                    log.warn("Upload rejected for user {}: {}", userId, ex.getReason());
+                    return Mono.just(ResponseEntity.status(ex.getStatusCode()).build());
+                })
+                .onErrorResume(ex -> {
+                    log.error("Error processing reactive file upload", ex);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+                });
+    }
 
+    private Mono<ResponseEntity<ProcessedDocument>> spoolAndProcess(FilePart file, String userId, Jwt jwt, Plan plan) {
         Mono<Path> tempFileMono = Mono.fromCallable(() -> {
             Path tmp = Files.createTempFile("upload-", "-" + sanitize(file.filename()));
             Files.newByteChannel(tmp, StandardOpenOption.WRITE).close();
@@ -54,7 +85,8 @@ public class GenAIController {
                                                 in,
                                                 file.filename(),
                                                 userId,
-                                                jwt
+                                                jwt,
+                                                plan
                                         );
                                     }
                                 }).subscribeOn(Schedulers.boundedElastic())
@@ -72,10 +104,7 @@ public class GenAIController {
                                 log.warn("Failed deleting temp file {}: {}", tmpPath, ex.getMessage());
                             }
                         })
-        ).onErrorResume(ex -> {
-            log.error("Error processing reactive file upload", ex);
-            return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
-        });
+        );
     }
 
     private String resolveUserId(Jwt jwt) {
@@ -0,0 +1,14 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto;
+
+/**
+ * What the security scan already extracted from a file, passed to tags-generation
+ * with the metadata request. Small text travels inline in {@code text}; larger text
+ * is stored as a gzip sidecar object under {@code sidecarKey}. Both are null when
+ * nothing was extracted.
+ */
+public record ExtractionHandoff(String mimeType, String text, Boolean truncated, String sidecarKey) {
+
+    public static ExtractionHandoff mimeTypeOnly(String mimeType) {
+        return new ExtractionHandoff(mimeType, null, null, null);
+    }
+}
@@ -0,0 +1,8 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto;
+
+/**
+ * Image ready to send to a vision model: base64 payload plus its real MIME type.
+ * {@code normalized} is false when the format could not be decoded and the
+ * original bytes are passed through unchanged.
+ */
+public record PreparedImage(String base64, String mimeType, boolean normalized) {}
@@ -1,3 +1,7 @@
 package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto;
 
-public record S3UploadResult(String fileUrl, long fileSize) {}
\ No newline at end of file
+/**
+ * {@code previousSize} is the size of the object the upload replaced (0 if none) and
+ * {@code revision} identifies the stored version (ETag and last-modified time).
+ */
+public record S3UploadResult(String fileUrl, long fileSize, long previousSize, String revision) {}
@@ -0,0 +1,7 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto;
+
+/**
+ * Change in a user's stored bytes, consumed by auth-service to keep its usage
+ * projection current. {@code eventId} lets the consumer drop redelivered events.
+ */
+public record StorageUsageEvent(String userId, long deltaBytes, String eventId) {}
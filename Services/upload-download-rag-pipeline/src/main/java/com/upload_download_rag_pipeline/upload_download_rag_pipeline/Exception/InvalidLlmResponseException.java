@@ -0,0 +1,15 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Exception;
+
+/**
+ * The model answered, but not with a JSON object matching the expected schema.
+ */
+public class InvalidLlmResponseException extends RuntimeException {
+
+    public InvalidLlmResponseException(String message) {
+        super(message);
+    }
+
+    public InvalidLlmResponseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,209 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
+
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.ExtractedContent;
+import lombok.RequiredArgsConstructor;
+import org.apache.tika.exception.WriteLimitReachedException;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.apache.tika.sax.BodyContentHandler;
+import org.apache.tika.sax.ContentHandlerDecorator;
+import org.apache.tika.sax.WriteOutContentHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Streams a document through Tika and stops as soon as {@code maxChars} of text
+ * have been collected, instead of parsing the whole file and truncating after.
+ * Parsing runs on the dedicated extraction pool under a per-file time budget
+ * that starts when the parse does, not when it is queued. A parse that runs
+ * out of budget fails with an IOException rather than returning partial text,
+ * so callers such as the security scan never mistake a fragment for the document.
+ */
+@Service
+@RequiredArgsConstructor
+public class ContentExtractionService {
+
+    private final ExecutorService extractionExecutor;
+    private static final int MAX_METADATA_VALUE_LENGTH = 200;
+
+    private final Parser parser = new AutoDetectParser();
+
+    @Value("${extraction.max-content-length:3000}")
+    private int maxContentLength;
+
+    @Value("${extraction.sample-budget:3000}")
+    private int sampleBudget;
+
+    @Value("${extraction.sample-max-scan-chars:2000000}")
+    private long sampleMaxScanChars;
+
+    @Value("${extraction.parse-timeout:PT15S}")
+    private Duration parseTimeout;
+
+    @Value("${extraction.queue-timeout:PT60S}")
+    private Duration queueTimeout;
+
+    public ExtractedContent extract(InputStream stream, String fileName) throws IOException {
+        return extract(stream, fileName, maxContentLength);
+    }
+
+    public ExtractedContent extract(InputStream stream, String fileName, int maxChars) throws IOException {
+        StringWriter writer = new StringWriter();
+        return parseWithinBudget(stream, fileName, new Metadata(), new WriteOutContentHandler(writer, maxChars),
+                limitReached -> new ExtractedContent(writer.toString(), limitReached));
+    }
+
+    /**
+     * Reads up to {@code extraction.sample-max-scan-chars} of the document and returns a
+     * {@code extraction.sample-budget} sized excerpt of it (outline, beginning, evenly spaced
+     * middle windows and end), so long documents cost the same prompt tokens as short ones.
+     */
+    public ExtractedContent sample(InputStream stream, String fileName) throws IOException {
+        ContentSampler sampler = new ContentSampler(sampleBudget, sampleMaxScanChars);
+        return parseWithinBudget(stream, fileName, new Metadata(), sampler,
+                limitReached -> new ExtractedContent(sampler.toExcerpt(), limitReached || sampler.isSampled()));
+    }
+
+    /**
+     * Describes an audio or video file from its container metadata (title, artist, duration,
+     * codecs, embedded lyrics or comments) and whatever text the parser emits, within the
+     * usual character limit. Callers pass only the head of large files.
+     */
+    public ExtractedContent describeMedia(InputStream stream, String fileName) throws IOException {
+        Metadata metadata = new Metadata();
+        StringWriter writer = new StringWriter();
+        return parseWithinBudget(stream, fileName, metadata, new WriteOutContentHandler(writer, maxContentLength),
+                limitReached -> new ExtractedContent(formatMetadata(metadata) + writer.toString().strip(), limitReached));
+    }
+
+    private ExtractedContent parseWithinBudget(InputStream stream, String fileName, Metadata metadata,
+                                               ContentHandler body, Function<Boolean, ExtractedContent> result)
+            throws IOException {
+        CompletableFuture<Long> started = new CompletableFuture<>();
+        Future<Boolean> parse;
+        try {
+            parse = extractionExecutor.submit(() -> {
+                long deadline = System.nanoTime() + parseTimeout.toNanos();
+                started.complete(deadline);
+                return parse(stream, fileName, metadata, new DeadlineContentHandler(body, deadline));
+            });
+        } catch (RejectedExecutionException e) {
+            throw new IOException("Content extraction pool is saturated", e);
+        }
+
+        long deadline;
+        try {
+            deadline = started.get(queueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            parse.cancel(false);
+            throw new IOException("Content extraction pool is saturated, " + fileName + " was not parsed", e);
+        } catch (InterruptedException e) {
+            parse.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting " + fileName, e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to extract content from " + fileName, e.getCause());
+        }
+
+        try {
+            boolean limitReached = parse.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            return result.apply(limitReached);
+        } catch (TimeoutException e) {
+            parse.cancel(true);
+            // Closing the source makes a parser stuck in I/O fail fast instead of running on.
+            stream.close();
+            throw new IOException("Extraction of " + fileName + " exceeded " + parseTimeout.toMillis() + " ms", e);
+        } catch (InterruptedException e) {
+            parse.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting " + fileName, e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to extract content from " + fileName, e.getCause());
+        }
+    }
+
+    private boolean parse(InputStream stream, String fileName, Metadata metadata, ContentHandler body)
+            throws Exception {
+        metadata.set(TikaCoreProperties.RESOURCE_NAME_KEY, fileName);
+        try {
+            parser.parse(stream, new BodyContentHandler(body), metadata, new ParseContext());
+            return false;
+        } catch (Exception e) {
+            if (WriteLimitReachedException.isWriteLimitReached(e)) {
+                return true;
+            }
+            throw e;
+        }
+    }
+
+    private String formatMetadata(Metadata metadata) {
+        StringBuilder out = new StringBuilder();
+        for (String name : metadata.names()) {
+            String value = metadata.get(name);
+            if (value == null || value.isBlank() || value.length() > MAX_METADATA_VALUE_LENGTH
+                    || name.startsWith("X-TIKA") || name.equals(TikaCoreProperties.RESOURCE_NAME_KEY)) {
+                continue;
+            }
+            out.append(name).append(": ").append(value.strip()).append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * Interrupting the pool thread does not stop a parser that is busy computing rather than
+     * reading, but every parser reports its output here, so a run past the deadline or after
+     * cancellation is aborted at its next element or chunk of text.
+     */
+    private static final class DeadlineContentHandler extends ContentHandlerDecorator {
+
+        private final long deadline;
+
+        DeadlineContentHandler(ContentHandler handler, long deadline) {
+            super(handler);
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String name, Attributes atts) throws SAXException {
+            checkBudget();
+            super.startElement(uri, localName, name, atts);
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) throws SAXException {
+            checkBudget();
+            super.characters(ch, start, length);
+        }
+
+        @Override
+        public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+            checkBudget();
+            super.ignorableWhitespace(ch, start, length);
+        }
+
+        private void checkBudget() throws SAXException {
+            if (Thread.currentThread().isInterrupted() || System.nanoTime() - deadline > 0) {
+                throw new SAXException("Extraction time budget exhausted");
+            }
+        }
+    }
+}
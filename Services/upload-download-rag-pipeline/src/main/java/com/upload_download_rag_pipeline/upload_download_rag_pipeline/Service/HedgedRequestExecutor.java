@@ -0,0 +1,136 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
+
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.config.HttpClientProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs an idempotent request and, if it has not answered within
+ * {@code http-client.hedging.delay}, sends an identical second one and returns
+ * whichever succeeds first. Trims the tail latency a single slow pod adds at the
+ * cost of occasional duplicate reads. Only use it for side-effect-free calls.
+ */
+@Service
+public class HedgedRequestExecutor {
+
+    private final HttpClientProperties properties;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+
+    public HedgedRequestExecutor(HttpClientProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.hedgesSent = Counter.builder("http.client.hedge.sent")
+                .description("Second requests sent because the first was slower than the hedging delay")
+                .register(meterRegistry);
+        this.hedgesWon = Counter.builder("http.client.hedge.won")
+                .description("Hedged requests that answered before the original")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> request) {
+        HttpClientProperties.Hedging hedging = properties.getHedging();
+        if (!hedging.isEnabled()) {
+            return request.get();
+        }
+
+        Attempt<T> primary = start(request);
+        try {
+            return primary.result().get(hedging.getDelay().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException slow) {
+            hedgesSent.increment();
+            return awaitFirstSuccess(primary, start(request));
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.cancel();
+            throw new IllegalStateException("Interrupted while waiting for response", e);
+        }
+    }
+
+    private <T> T awaitFirstSuccess(Attempt<T> primary, Attempt<T> hedge) {
+        CompletableFuture<T> result = firstSuccess(primary.result(), hedge.result());
+        // The losing attempt would otherwise keep its upstream request running to completion.
+        result.whenComplete((value, error) -> {
+            primary.cancel();
+            hedge.cancel();
+        });
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.cancel();
+            hedge.cancel();
+            throw new IllegalStateException("Interrupted while waiting for response", e);
+        }
+    }
+
+    // CompletableFuture.cancel does not interrupt the running task, so the executor's Future is kept for that.
+    private <T> Attempt<T> start(Supplier<T> request) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(request.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return new Attempt<>(result, task);
+    }
+
+    // Completes with the first successful answer; fails only once both attempts have failed.
+    private <T> CompletableFuture<T> firstSuccess(CompletableFuture<T> primary, CompletableFuture<T> hedge) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else if (failures.incrementAndGet() == 2) {
+                result.completeExceptionally(error);
+            }
+        });
+        hedge.whenComplete((value, error) -> {
+            if (error == null) {
+                if (result.complete(value)) {
+                    hedgesWon.increment();
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                result.completeExceptionally(error);
+            }
+        });
+        return result;
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record Attempt<T>(CompletableFuture<T> result, Future<?> task) {
+
+        void cancel() {
+            task.cancel(true);
+        }
+    }
+}
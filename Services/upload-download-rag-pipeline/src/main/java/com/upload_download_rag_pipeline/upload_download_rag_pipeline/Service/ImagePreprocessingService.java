@@ -0,0 +1,171 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
+
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.PreparedImage;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.Tika;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.FileCacheImageInputStream;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.Iterator;
+
+/**
+ * Shrinks images before they are sent to the LLM. The decoder subsamples while
+ * reading, so a 20 MP photo is never held at full resolution; the result is
+ * scaled to {@code image.max-dimension} on its longest side and re-encoded as
+ * JPEG, lowering quality step by step until it fits {@code image.target-bytes}.
+ * Formats ImageIO cannot decode are passed through with their detected MIME type.
+ */
+@Slf4j
+@Service
+public class ImagePreprocessingService {
+
+    private static final String JPEG = "image/jpeg";
+    private static final float MIN_QUALITY = 0.4f;
+    private static final float QUALITY_STEP = 0.15f;
+
+    private final Tika tika = new Tika();
+
+    @Value("${image.max-dimension:1536}")
+    private int maxDimension;
+
+    @Value("${image.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${image.target-bytes:512000}")
+    private int targetBytes;
+
+    public PreparedImage prepare(InputStream stream) throws IOException {
+        try (ImageInputStream input = rewindable(stream)) {
+            BufferedImage image = decodeSubsampled(input);
+            if (image == null) {
+                return passThrough(input);
+            }
+            return prepare(image);
+        }
+    }
+
+    public PreparedImage prepare(BufferedImage image) throws IOException {
+        byte[] jpeg = encodeJpeg(scaleToFit(image));
+        return new PreparedImage(Base64.getEncoder().encodeToString(jpeg), JPEG, true);
+    }
+
+    // Readers flush the stream as they decode; keeping the cache lets a failed decode rewind for passThrough.
+    private static ImageInputStream rewindable(InputStream stream) throws IOException {
+        if (ImageIO.getUseCache()) {
+            return new FileCacheImageInputStream(stream, ImageIO.getCacheDirectory()) {
+                @Override
+                public void flushBefore(long pos) {
+                }
+            };
+        }
+        return new MemoryCacheImageInputStream(stream) {
+            @Override
+            public void flushBefore(long pos) {
+            }
+        };
+    }
+
+    private BufferedImage decodeSubsampled(ImageInputStream input) {
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        // ImageReader.getFormatName() throws IOException, so the name is taken from the provider up front.
+        String format = reader.getOriginatingProvider() != null
+                ? reader.getOriginatingProvider().getFormatNames()[0]
+                : reader.getClass().getSimpleName();
+        try {
+            // Not seek-forward-only: a failed decode rewinds to pass the original bytes through.
+            reader.setInput(input, false, true);
+            int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+            // Integer subsampling keeps the decoded image at or above the target size; scaleToFit does the rest.
+            int step = Math.max(1, longest / maxDimension);
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceSubsampling(step, step, 0, 0);
+            return reader.read(0, param);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not decode image with {}, sending original bytes", format, e);
+            return null;
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private BufferedImage scaleToFit(BufferedImage source) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // Drawn onto an opaque RGB canvas because JPEG has no alpha channel.
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, targetWidth, targetHeight);
+            g.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        byte[] encoded = writeJpeg(image, jpegQuality);
+        for (float quality = jpegQuality - QUALITY_STEP; encoded.length > targetBytes && quality >= MIN_QUALITY;
+             quality -= QUALITY_STEP) {
+            encoded = writeJpeg(image, quality);
+        }
+        return encoded;
+    }
+
+    private byte[] writeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByMIMEType(JPEG).next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private PreparedImage passThrough(ImageInputStream input) throws IOException {
+        // Nothing was flushed (see rewindable), so rewinding recovers every byte the decoder consumed.
+        input.seek(0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        byte[] bytes = out.toByteArray();
+        return new PreparedImage(Base64.getEncoder().encodeToString(bytes), tika.detect(bytes), false);
+    }
+}
@@ -0,0 +1,93 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
+
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.PreparedImage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jcodec.api.FrameGrab;
+import org.jcodec.api.JCodecException;
+import org.jcodec.common.io.SeekableByteChannel;
+import org.jcodec.common.model.Picture;
+import org.jcodec.scale.AWTUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Turns a video into a single collage of keyframes evenly spaced over its
+ * duration, decoded in-process with JCodec. Seeks are keyframe-sloppy, so only
+ * the container index and a few GOP heads are read, which keeps ranged reads
+ * small even for long videos. Each frame is scaled into its tile as soon as it
+ * is decoded, so at most one full-resolution frame is in memory.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MediaSamplingService {
+
+    private final ImagePreprocessingService imagePreprocessingService;
+
+    @Value("${media.keyframes:6}")
+    private int keyframeCount;
+
+    @Value("${media.collage-width:1536}")
+    private int collageWidth;
+
+    /**
+     * Empty when the container or codec is not supported by the decoder
+     * (JCodec reads H.264 in MP4/MOV), so callers can fall back to metadata.
+     */
+    public Optional<PreparedImage> keyframeCollage(SeekableByteChannel channel, String fileName) {
+        try {
+            FrameGrab grab = FrameGrab.createFrameGrab(channel);
+            double duration = grab.getVideoTrack().getMeta().getTotalDuration();
+            int frames = duration > 0 ? keyframeCount : 1;
+            int columns = (int) Math.ceil(Math.sqrt(frames));
+
+            BufferedImage collage = null;
+            int tileWidth = collageWidth / columns;
+            int tileHeight = 0;
+            int drawn = 0;
+            for (int i = 0; i < frames; i++) {
+                grab.seekToSecondSloppy(duration * (i + 0.5) / frames);
+                Picture picture = grab.getNativeFrame();
+                if (picture == null) {
+                    break;
+                }
+                BufferedImage frame = AWTUtil.toBufferedImage(picture);
+                if (collage == null) {
+                    tileHeight = Math.max(1, tileWidth * frame.getHeight() / frame.getWidth());
+                    int rows = (int) Math.ceil((double) frames / columns);
+                    collage = new BufferedImage(tileWidth * columns, tileHeight * rows, BufferedImage.TYPE_INT_RGB);
+                }
+                drawTile(collage, frame, (i % columns) * tileWidth, (i / columns) * tileHeight, tileWidth, tileHeight);
+                drawn++;
+            }
+
+            if (collage == null) {
+                return Optional.empty();
+            }
+            int usedRows = (int) Math.ceil((double) drawn / columns);
+            log.debug("Sampled {} keyframes from {} ({} s)", drawn, fileName, duration);
+            return Optional.of(imagePreprocessingService.prepare(
+                    collage.getSubimage(0, 0, collage.getWidth(), usedRows * tileHeight)));
+        } catch (IOException | JCodecException | RuntimeException e) {
+            log.info("Could not decode keyframes from {}: {}", fileName, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    private static void drawTile(BufferedImage collage, BufferedImage frame, int x, int y, int width, int height) {
+        Graphics2D g = collage.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(frame, x, y, width, height, null);
+        } finally {
+            g.dispose();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Model.Plan;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+
+/**
+ * Resolves a user's storage plan without calling auth-service on the upload
+ * path. auth-service writes the plan to Redis at login and on every upgrade, so
+ * that entry wins; the token's plan claim covers a missing entry, and the
+ * circuit-broken call to auth-service is only the last resort. Answers are held
+ * locally for a few seconds so parallel uploads share one lookup.
+ */
+@Slf4j
+@Service
+public class PlanService {
+
+    static final String PLAN_KEY_PREFIX = "user:plan:";
+
+    @Value("${authServiceUrl}")
+    private String authServiceUrl;
+
+    @Value("${plan.shared-ttl:1h}")
+    private Duration sharedTtl;
+
+    private final RestClient restClient;
+    private final StringRedisTemplate redisTemplate;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final HedgedRequestExecutor hedgedRequestExecutor;
+    private final Cache<String, Plan> localPlans;
+
+    public PlanService(RestClient restClient,
+                       StringRedisTemplate redisTemplate,
+                       CircuitBreakerRegistry circuitBreakerRegistry,
+                       HedgedRequestExecutor hedgedRequestExecutor,
+                       @Value("${plan.local-ttl:30s}") Duration localTtl) {
+        this.restClient = restClient;
+        this.redisTemplate = redisTemplate;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.hedgedRequestExecutor = hedgedRequestExecutor;
+        this.localPlans = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(localTtl)
+                .build();
+    }
+
+    public Plan resolvePlan(String userId, Jwt token) {
+        Plan plan = localPlans.getIfPresent(userId);
+        if (plan != null) {
+            return plan;
+        }
+
+        plan = readSharedPlan(userId);
+        if (plan == null) {
+            plan = parsePlan(token == null ? null : token.getClaimAsString("plan"));
+        }
+        if (plan == null) {
+            plan = fetchFromAuthService(userId, token);
+        }
+        if (plan == null) {
+            // Not cached, so the next upload tries the real sources again.
+            return Plan.BASIC;
+        }
+
+        localPlans.put(userId, plan);
+        return plan;
+    }
+
+    private Plan readSharedPlan(String userId) {
+        try {
+            return parsePlan(redisTemplate.opsForValue().get(PLAN_KEY_PREFIX + userId));
+        } catch (Exception e) {
+            log.warn("Plan cache unavailable for user {}: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    private Plan fetchFromAuthService(String userId, Jwt token) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("authService");
+        try {
+            Plan plan = circuitBreaker.executeSupplier(() -> hedgedRequestExecutor.execute(() ->
+                    restClient.get()
+                            .uri(authServiceUrl, userId)
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token.getTokenValue())
+                            .retrieve()
+                            .body(Plan.class)));
+            if (plan != null) {
+                backfillSharedPlan(userId, plan);
+            }
+            return plan;
+        } catch (Exception e) {
+            log.warn("Auth Service unavailable. Defaulting to BASIC plan. Error: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // setIfAbsent so a plan written by an upgrade in the meantime is never overwritten with an older answer.
+    private void backfillSharedPlan(String userId, Plan plan) {
+        try {
+            redisTemplate.opsForValue().setIfAbsent(PLAN_KEY_PREFIX + userId, plan.name(), sharedTtl);
+        } catch (Exception e) {
+            log.debug("Could not backfill plan cache for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private static Plan parsePlan(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Plan.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -3,6 +3,9 @@ package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.BanNotification;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.ExtractionHandoff;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.MetadataAnalysis;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.StorageUsageEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,8 +26,13 @@ public class QueueService {
     @Value("${kafka.topics.notification:notification-topic}")
     private String notificationTopic;
 
-    public void publishMetadataRequest(String fileName, String fileType, String s3Location, String userId, long fileSize, String email) {
-        MetadataRequest request = new MetadataRequest(fileName, fileType, s3Location, userId, fileSize, email);
+    @Value("${kafka.topics.storage-usage:storage-usage-events}")
+    private String storageUsageTopic;
+
+    public void publishMetadataRequest(String fileName, String fileType, String s3Location, String userId, long fileSize, String email,
+                                       ExtractionHandoff extraction, MetadataAnalysis analysis) {
+        MetadataRequest request = new MetadataRequest(fileName, fileType, s3Location, userId, fileSize, email,
+                extraction.mimeType(), extraction.text(), extraction.truncated(), extraction.sidecarKey(), analysis);
         publishToTopic(metadataTopic, request, "metadata request");
     }
 
@@ -32,6 +40,15 @@ public class QueueService {
         publishToTopic(notificationTopic, banNotification, "ban notification");
     }
 
+    public void publishStorageUsage(StorageUsageEvent event) {
+        // Keyed by user so one user's deltas are applied in order.
+        try {
+            kafkaTemplate.send(storageUsageTopic, event.userId(), objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize storage usage event: {}", event, e);
+        }
+    }
+
     private void publishToTopic(String topic, Object payload, String logDescription) {
         try {
             String jsonMessage = objectMapper.writeValueAsString(payload);
@@ -42,5 +59,7 @@ public class QueueService {
         }
     }
 
-    private record MetadataRequest(String fileName, String fileType, String s3Location, String userId, long fileSize, String email) {}
+    private record MetadataRequest(String fileName, String fileType, String s3Location, String userId, long fileSize, String email,
+                                   String mimeType, String extractedText, Boolean extractedTruncated, String extractionKey,
+                                   MetadataAnalysis analysis) {}
 }
\ No newline at end of file
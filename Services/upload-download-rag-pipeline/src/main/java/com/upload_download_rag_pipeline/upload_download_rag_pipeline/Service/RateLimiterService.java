@@ -0,0 +1,158 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
+
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.config.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token-bucket limiter shared by every instance through Redis. The bucket is
+ * refilled and debited inside one Lua script using the Redis clock, so instances
+ * never disagree about time. To keep Redis off the hot path each instance leases
+ * a few tokens at a time and spends them locally, and once a bucket is empty the
+ * refusal is remembered locally until the next token is due, so a client
+ * hammering an endpoint costs one Redis call per refill rather than one per
+ * request.
+ */
+@Slf4j
+@Service
+public class RateLimiterService {
+
+    private static final int MAX_LOCAL_BUCKETS = 10_000;
+
+    // KEYS[1] bucket; ARGV capacity, tokens per millisecond, tokens wanted.
+    // Returns {tokens granted, milliseconds until one token is available}.
+    private static final RedisScript<List> TOKEN_BUCKET = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local rate = tonumber(ARGV[2])
+            local wanted = tonumber(ARGV[3])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1]) or capacity
+            local ts = tonumber(state[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+            local granted = math.min(wanted, math.floor(tokens))
+            local retry = 0
+            if granted < 1 then
+                granted = 0
+                retry = math.ceil((1 - tokens) / rate)
+            end
+            tokens = tokens - granted
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))
+            redis.call('PEXPIRE', KEYS[1], math.ceil((capacity - tokens) / rate) + 1000)
+            return {granted, retry}
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, LocalBucket> localBuckets = new ConcurrentHashMap<>();
+
+    private Clock clock = Clock.systemUTC();
+
+    public RateLimiterService(StringRedisTemplate redisTemplate,
+                              RateLimitProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public record Decision(boolean allowed, long retryAfterMillis) {
+        static final Decision ALLOW = new Decision(true, 0);
+
+        public long retryAfterSeconds() {
+            return Math.max(1, (retryAfterMillis + 999) / 1000);
+        }
+    }
+
+    public Optional<RateLimitProperties.Rule> resolveRule(String method, String path) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        return properties.getRules().stream()
+                .filter(rule -> rule.matches(method, path, pathMatcher))
+                .findFirst();
+    }
+
+    public Decision tryAcquire(RateLimitProperties.Rule rule, String clientId) {
+        String key = properties.getKeyPrefix() + rule.getName() + ":" + clientId;
+        if (localBuckets.size() > MAX_LOCAL_BUCKETS) {
+            long now = clock.millis();
+            localBuckets.values().removeIf(bucket -> bucket.isIdle(now));
+        }
+        LocalBucket local = localBuckets.computeIfAbsent(key, k -> new LocalBucket());
+
+        // Holding the bucket while Redis answers makes concurrent requests from
+        // the same client share one round trip and the tokens it leases.
+        synchronized (local) {
+            long now = clock.millis();
+            if (now < local.blockedUntil) {
+                return reject(rule, local.blockedUntil - now);
+            }
+            if (local.leased > 0 && now < local.leaseExpiresAt) {
+                local.leased--;
+                return Decision.ALLOW;
+            }
+
+            long[] reply;
+            try {
+                reply = callRedis(key, rule);
+            } catch (Exception ex) {
+                log.warn("Rate limiter unavailable for {}: {}", key, ex.getMessage());
+                return properties.isFailOpen() ? Decision.ALLOW : reject(rule, 1000);
+            }
+
+            now = clock.millis();
+            if (reply[0] < 1) {
+                local.leased = 0;
+                local.blockedUntil = now + reply[1];
+                return reject(rule, reply[1]);
+            }
+            local.leased = (int) reply[0] - 1;
+            local.leaseExpiresAt = now + properties.getLeaseTtl().toMillis();
+            return Decision.ALLOW;
+        }
+    }
+
+    private long[] callRedis(String key, RateLimitProperties.Rule rule) {
+        double perMilli = (double) rule.getCapacity() / rule.getPeriod().toMillis();
+        int wanted = Math.max(1, Math.min(properties.getLeaseSize(), rule.getCapacity() / 10));
+        List<?> reply = redisTemplate.execute(TOKEN_BUCKET, List.of(key),
+                String.valueOf(rule.getCapacity()),
+                String.valueOf(perMilli),
+                String.valueOf(wanted));
+        if (reply == null || reply.size() < 2) {
+            throw new IllegalStateException("Unexpected rate limit script reply: " + reply);
+        }
+        return new long[]{((Number) reply.get(0)).longValue(), ((Number) reply.get(1)).longValue()};
+    }
+
+    private Decision reject(RateLimitProperties.Rule rule, long retryAfterMillis) {
+        meterRegistry.counter("ratelimit.rejected", "rule", rule.getName()).increment();
+        return new Decision(false, retryAfterMillis);
+    }
+
+    private static final class LocalBucket {
+        int leased;
+        long leaseExpiresAt;
+        long blockedUntil;
+
+        synchronized boolean isIdle(long now) {
+            return now >= leaseExpiresAt && now >= blockedUntil;
+        }
+    }
+}
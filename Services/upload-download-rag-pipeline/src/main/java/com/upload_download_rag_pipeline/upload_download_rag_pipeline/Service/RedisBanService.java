@@ -1,20 +1,51 @@
 package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
 
 import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.BanNotification;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.upload_download_rag_pipeline.upload_download_rag_pipeline.config.BanProperties;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Ban state lives in Redis; {@link #isUserBanned} answers from a local cache so
+ * parallel uploads from the same user do not each cost a round trip. Bans are
+ * rare, so "not banned" is cached only briefly, and every instance drops its
+ * entry for a user as soon as a ban is applied anywhere via a pub/sub message.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class RedisBanService {
 
     private final StringRedisTemplate redisTemplate;
     private final QueueService queueService;
     private final BanProperties banProperties;
+    private final Cache<String, Boolean> banCache;
+
+    public RedisBanService(StringRedisTemplate redisTemplate,
+                           QueueService queueService,
+                           BanProperties banProperties,
+                           RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.queueService = queueService;
+        this.banProperties = banProperties;
+
+        BanProperties.Cache cache = banProperties.getCache();
+        this.banCache = Caffeine.newBuilder()
+                .maximumSize(cache.getMaximumSize())
+                .expireAfter(new BanExpiry(cache.getPositiveTtl().toNanos(), cache.getNegativeTtl().toNanos()))
+                .build();
+
+        listenerContainer.addMessageListener(
+                (message, pattern) -> banCache.invalidate(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(cache.getInvalidationChannel()));
+    }
 
     public long incrementViolationAndCheckBan(String userId, String email) {
 
@@ -53,6 +84,14 @@ public class RedisBanService {
             redisTemplate.opsForValue().set(banKey, banValue, rule.getTtl());
         }
 
+        banCache.invalidate(userId);
+        try {
+            redisTemplate.convertAndSend(banProperties.getCache().getInvalidationChannel(), userId);
+        } catch (Exception e) {
+            // Other instances still see the ban once their negative entry expires.
+            log.warn("Failed to broadcast ban of user {}: {}", userId, e.getMessage());
+        }
+
         log.warn("User {} banned | duration={} | reason={}",
                 userId, rule.getDuration(), rule.getReason());
 
@@ -68,8 +107,27 @@ public class RedisBanService {
     }
 
     public boolean isUserBanned(String userId) {
-        return redisTemplate.hasKey(
-                banProperties.getRedis().getBanKeyPrefix() + userId
-        );
+        // Concurrent misses for the same user share a single Redis lookup.
+        return banCache.get(userId, id -> Boolean.TRUE.equals(redisTemplate.hasKey(
+                banProperties.getRedis().getBanKeyPrefix() + id
+        )));
+    }
+
+    private record BanExpiry(long positiveNanos, long negativeNanos) implements Expiry<String, Boolean> {
+
+        @Override
+        public long expireAfterCreate(String userId, Boolean banned, long currentTime) {
+            return banned ? positiveNanos : negativeNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String userId, Boolean banned, long currentTime, long currentDuration) {
+            return expireAfterCreate(userId, banned, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String userId, Boolean banned, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
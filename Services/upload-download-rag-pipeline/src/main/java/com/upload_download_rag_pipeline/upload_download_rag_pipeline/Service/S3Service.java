@@ -11,11 +11,13 @@ import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
 import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
 
 import java.io.InputStream;
@@ -80,6 +82,7 @@ public class S3Service {
                 .build();
 
         byte[] fileBytes = inputStream.readAllBytes();
+        long previousSize = existingSize(key);
         s3Client.putObject(putObjectRequest, RequestBody.fromBytes(fileBytes));
 
         HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
@@ -93,7 +96,41 @@ public class S3Service {
 
         log.info("Successfully uploaded file {} with size {} bytes to S3 bucket {}", key, fileSize, bucketName);
 
-        return new S3UploadResult(fileUrl, fileSize);
+        return new S3UploadResult(fileUrl, fileSize, previousSize,
+                headObjectResponse.eTag() + "@" + headObjectResponse.lastModified());
+    }
+
+    // Size of the object a re-upload is about to overwrite, so usage is charged only the difference.
+    private long existingSize(String key) {
+        try {
+            return s3Client.headObject(HeadObjectRequest.builder().bucket(bucketName).key(key).build()).contentLength();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return 0;
+            }
+            throw e;
+        }
+    }
+
+    /** Stores a gzip-compressed helper object outside the user folders, so it is not counted towards quota. */
+    public void uploadCompressed(String key, byte[] gzippedBytes, String contentType) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentEncoding("gzip")
+                .build();
+
+        s3Client.putObject(putObjectRequest, RequestBody.fromBytes(gzippedBytes));
+    }
+
+    /** Best effort: a helper object left behind is expired by the bucket's lifecycle rule. */
+    public void deleteCompressed(String key) {
+        try {
+            s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucketName).key(key).build());
+        } catch (Exception e) {
+            log.warn("Failed to delete helper object {}: {}", key, e.getMessage());
+        }
     }
 
     public InputStream downloadFile(String s3Location) {
@@ -1,44 +1,64 @@
 package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.JsonMappingException;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.ExtractedContent;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.MetadataAnalysis;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.PreparedImage;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Exception.InvalidLlmResponseException;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.config.LangChainConfig;
 import dev.langchain4j.data.message.ImageContent;
 import dev.langchain4j.data.message.TextContent;
 import dev.langchain4j.data.message.UserMessage;
 import dev.langchain4j.model.chat.ChatLanguageModel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.tika.Tika;
 import org.springframework.stereotype.Service;
 import org.springframework.core.io.Resource;
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Supplier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.util.StreamUtils;
+import org.jcodec.common.io.FileChannelWrapper;
+import org.jcodec.common.io.NIOUtils;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SecurityService {
 
+    public static final String EXTRACTED_CONTENT = "extracted_content";
+    public static final String METADATA_ANALYSIS = "metadata_analysis";
+
     private final Map<String, ChatLanguageModel> specializedModels;
-    private final Tika tika = new Tika();
-    private final ObjectMapper objectMapper;
-    private static final int MAX_CONTENT_LENGTH = 3000;
-    private static final String TRUNCATION_INDICATOR = "...";
+    private final StructuredOutputParser structuredOutputParser;
+    private final ContentExtractionService contentExtractionService;
+    private final ImagePreprocessingService imagePreprocessingService;
+    private final MediaSamplingService mediaSamplingService;
+
+    @Value("${media.head-bytes:1048576}")
+    private int mediaHeadBytes;
+
+    // When on, the security call also returns tags, categories and summary, and tags-generation skips its own call.
+    @Value("${analysis.combined.enabled:false}")
+    private boolean combinedAnalysis;
 
     @Value("classpath:Prompts/security-check.txt")
     private Resource securityPromptResource;
+
+    @Value("classpath:Prompts/security-and-metadata.txt")
+    private Resource combinedPromptResource;
     private String systemPrompt;
 
     private String getSystemPrompt() {
         if (systemPrompt == null) {
             try {
                 systemPrompt = StreamUtils.copyToString(
-                        securityPromptResource.getInputStream(),
+                        (combinedAnalysis ? combinedPromptResource : securityPromptResource).getInputStream(),
                         StandardCharsets.UTF_8
                 );
             } catch (IOException e) {
@@ -48,37 +68,37 @@ public class SecurityService {
         }
         return systemPrompt;
     }
-    private String truncateContent(String content) {
-        if (content.length() <= MAX_CONTENT_LENGTH) {
-            return content;
-        }
-        return content.substring(0, MAX_CONTENT_LENGTH) + TRUNCATION_INDICATOR;
-    }
-
-    private static class SecurityResponse {
-        public String security_status;
-        public String rejection_reason;
-    }
 
-    public Map<String, Object> checkFileSecurity(InputStream fileStream, String fileName, String fileType) throws Exception {
+    public Map<String, Object> checkFileSecurity(Path filePath, String fileName, String fileType) throws Exception {
         log.info("Performing security check for file: {} of type: {}", fileName, fileType);
         ChatLanguageModel llm = selectSpecializedLLM(fileType);
 
         try {
             if ("image".equals(fileType)) {
-                return analyzeImageForSecurity(llm, fileStream);
-
-            } else if ("video".equals(fileType) || "audio".equals(fileType)) {
-                log.info("Skipping text content analysis for media type: {}", fileType);
-
-                Map<String, Object> result = new HashMap<>();
-                result.put("security_status", "safe");
-                result.put("rejection_reason", null);
-                return result;
+                try (InputStream fileStream = Files.newInputStream(filePath)) {
+                    return analyzeImageForSecurity(llm, imagePreprocessingService.prepare(fileStream),
+                            "Analyze the provided image for explicit or harmful content.");
+                }
+
+            } else if ("video".equals(fileType)) {
+                try (FileChannelWrapper channel = NIOUtils.readableChannel(filePath.toFile())) {
+                    Optional<PreparedImage> collage = mediaSamplingService.keyframeCollage(channel, fileName);
+                    if (collage.isPresent()) {
+                        return analyzeImageForSecurity(llm, collage.get(),
+                                "The image is a grid of frames sampled evenly from a video. "
+                                        + "Analyze the video for explicit or harmful content.");
+                    }
+                }
+                return analyzeMediaMetadataForSecurity(llm, filePath, fileName, fileType);
+
+            } else if ("audio".equals(fileType)) {
+                return analyzeMediaMetadataForSecurity(llm, filePath, fileName, fileType);
 
             } else {
-                String content = extractContent(fileStream);
-                return analyzeDocumentForSecurity(llm, content, fileType);
+                try (InputStream fileStream = Files.newInputStream(filePath)) {
+                    ExtractedContent content = contentExtractionService.sample(fileStream, fileName);
+                    return withExtractedContent(analyzeDocumentForSecurity(llm, content, fileType), content);
+                }
             }
         } catch (Exception e) {
             log.error("Security check failed for file: {}", fileName, e);
@@ -89,87 +109,82 @@ public class SecurityService {
             return errorResult;
         }
     }
-    private Map<String, Object> analyzeDocumentForSecurity(
-            ChatLanguageModel llm, String content, String fileType) {
 
-        String truncated = truncateContent(content);
-        String userPrompt = String.format(
-                "Analyze this %s document for explicit or harmful content.\n\nContent:\n%s",
-                fileType, truncated
-        );
+    // Container metadata (titles, comments, embedded lyrics) is the only text an undecodable video or an
+    // audio file carries; files without any are let through as before.
+    private Map<String, Object> analyzeMediaMetadataForSecurity(
+            ChatLanguageModel llm, Path filePath, String fileName, String fileType) throws IOException {
+        byte[] head;
+        try (InputStream fileStream = Files.newInputStream(filePath)) {
+            head = fileStream.readNBytes(mediaHeadBytes);
+        }
+        ExtractedContent content = contentExtractionService.describeMedia(new ByteArrayInputStream(head), fileName);
+        if (content.text().isBlank()) {
+            log.info("No analysable content in {} file {}, skipping", fileType, fileName);
+            Map<String, Object> result = new HashMap<>();
+            result.put("security_status", "safe");
+            result.put("rejection_reason", null);
+            return result;
+        }
+        return withExtractedContent(analyzeDocumentForSecurity(llm, content, fileType), content);
+    }
 
-        String response = llm.generate(getSystemPrompt() + userPrompt);
-        return parseJsonSecurityResponse(response);
+    // Handed on with the metadata request so tags-generation does not download and parse the file again.
+    private Map<String, Object> withExtractedContent(Map<String, Object> result, ExtractedContent content) {
+        result.put(EXTRACTED_CONTENT, content);
+        return result;
     }
 
-    private Map<String, Object> analyzeImageForSecurity(ChatLanguageModel llm, InputStream imageStream) throws Exception {
-        byte[] imageBytes = readInputStreamToBytes(imageStream);
-        String base64Image = Base64.getEncoder().encodeToString(imageBytes);
+    private Map<String, Object> analyzeDocumentForSecurity(
+            ChatLanguageModel llm, ExtractedContent content, String fileType) {
+
+        String userPrompt = content.truncated()
+                ? String.format(
+                        "Analyze this %s document for explicit or harmful content. The document is long, so the content "
+                                + "below is a sample of it: its outline, beginning, evenly spaced excerpts and end.\n\nContent:\n%s",
+                        fileType, content.text())
+                : String.format(
+                        "Analyze this %s document for explicit or harmful content.\n\nContent:\n%s",
+                        fileType, content.text());
+
+        String prompt = getSystemPrompt() + userPrompt;
+        return toSecurityResult(() -> llm.generate(prompt));
+    }
 
-        ImageContent imageContent = ImageContent.from(base64Image, "image/png");
-        TextContent textContent = TextContent.from(getSystemPrompt() + "Analyze the provided image for explicit or harmful content.");
+    private Map<String, Object> analyzeImageForSecurity(ChatLanguageModel llm, PreparedImage image, String instruction) {
+        ImageContent imageContent = ImageContent.from(image.base64(), image.mimeType());
+        TextContent textContent = TextContent.from(getSystemPrompt() + instruction);
         UserMessage userMessage = UserMessage.from(Arrays.asList(textContent, imageContent));
 
-        String response = llm.generate(userMessage).content().text();
-        return parseJsonSecurityResponse(response);
+        return toSecurityResult(() -> llm.generate(userMessage).content().text());
     }
 
-    private Map<String, Object> parseJsonSecurityResponse(String response) {
-        String sanitizedResponse = response.trim();
-
-
-        if (sanitizedResponse.startsWith("```json")) {
-            sanitizedResponse = sanitizedResponse.substring("```json".length()).trim();
-        }
-        if (sanitizedResponse.endsWith("```")) {
-            sanitizedResponse = sanitizedResponse.substring(0, sanitizedResponse.length() - "```".length()).trim();
-        }
-
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> toSecurityResult(Supplier<String> call) {
+        Map<String, Object> verdict;
         try {
-
-            SecurityResponse securityResponse = objectMapper.readValue(sanitizedResponse, SecurityResponse.class);
-
-            Map<String, Object> result = new HashMap<>();
-            result.put("security_status", securityResponse.security_status);
-            result.put("rejection_reason", securityResponse.rejection_reason);
-
-            if (!"safe".equals(result.get("security_status")) && !"unsafe".equals(result.get("security_status"))) {
-                log.warn("LLM returned an unexpected status: {}", result.get("security_status"));
-                result.put("security_status", "error");
-                result.put("rejection_reason", "LLM returned an unexpected status.");
-            }
-            return result;
-        } catch (JsonMappingException e) {
-            log.error("Failed to parse LLM response due to invalid JSON format: {}", sanitizedResponse, e);
+            verdict = structuredOutputParser.generate(call, LangChainConfig.SECURITY_SCHEMA);
+        } catch (InvalidLlmResponseException e) {
+            log.error("LLM security verdict unusable after retries: {}", e.getMessage());
             Map<String, Object> errorResult = new HashMap<>();
             errorResult.put("security_status", "error");
-            errorResult.put("rejection_reason", "LLM response is not valid JSON.");
-            return errorResult;
-        } catch (Exception e) {
-            log.error("Failed to parse LLM response: {}", sanitizedResponse, e);
-            Map<String, Object> errorResult = new HashMap<>();
-            errorResult.put("security_status", "error");
-            errorResult.put("rejection_reason", "An error occurred while parsing LLM response.");
+            errorResult.put("rejection_reason", "LLM response did not match the expected format.");
             return errorResult;
         }
-    }
 
-    private String extractContent(InputStream stream) throws Exception {
-        return tika.parseToString(stream);
+        Map<String, Object> result = new HashMap<>();
+        result.put("security_status", verdict.get("security_status"));
+        result.put("rejection_reason", verdict.get("rejection_reason"));
+
+        List<String> tags = (List<String>) verdict.get("tags");
+        if (combinedAnalysis && "safe".equals(verdict.get("security_status")) && tags != null && !tags.isEmpty()) {
+            result.put(METADATA_ANALYSIS, new MetadataAnalysis(
+                    tags, (List<String>) verdict.get("categories"), (String) verdict.get("summary")));
+        }
+        return result;
     }
 
     private ChatLanguageModel selectSpecializedLLM(String fileType) {
         return specializedModels.getOrDefault(fileType, specializedModels.get("default"));
     }
-
-    private byte[] readInputStreamToBytes(InputStream inputStream) throws IOException {
-        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-        int nRead;
-        byte[] data = new byte[1024];
-        while ((nRead = inputStream.read(data, 0, data.length)) != -1) {
-            buffer.write(data, 0, nRead);
-        }
-        buffer.flush();
-        return buffer.toByteArray();
-    }
 }
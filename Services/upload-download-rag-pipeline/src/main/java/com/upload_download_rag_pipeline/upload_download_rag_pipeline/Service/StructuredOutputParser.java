@@ -0,0 +1,124 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Exception.InvalidLlmResponseException;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.config.StructuredSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Reads an LLM answer token by token with Jackson's streaming parser and checks
+ * it against a {@link StructuredSchema} without building a tree. Anything before
+ * the first '{' (a stray markdown fence, say) and after the closing '}' is
+ * ignored, unknown fields are skipped, and a wrong type, a value outside an
+ * enum or a missing required field is a schema violation.
+ */
+@Slf4j
+@Service
+public class StructuredOutputParser {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    @Value("${llm.structured-output.max-attempts:2}")
+    private int maxAttempts;
+
+    /**
+     * Calls the model until its answer matches the schema, at most
+     * {@code llm.structured-output.max-attempts} times. Only schema violations are
+     * retried; failures of the call itself propagate straight away.
+     */
+    public Map<String, Object> generate(Supplier<String> call, StructuredSchema schema) {
+        InvalidLlmResponseException last = null;
+        for (int attempt = 1; attempt <= Math.max(1, maxAttempts); attempt++) {
+            try {
+                return parse(call.get(), schema);
+            } catch (InvalidLlmResponseException e) {
+                last = e;
+                log.warn("LLM response did not match schema {} (attempt {}/{}): {}",
+                        schema.name(), attempt, maxAttempts, e.getMessage());
+            }
+        }
+        throw last;
+    }
+
+    public Map<String, Object> parse(String response, StructuredSchema schema) {
+        int start = response == null ? -1 : response.indexOf('{');
+        if (start < 0) {
+            throw new InvalidLlmResponseException("Response contains no JSON object");
+        }
+
+        StringReader reader = new StringReader(response);
+        try (JsonParser parser = JSON.createParser(reader)) {
+            reader.skip(start);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new InvalidLlmResponseException("Response is not a JSON object");
+            }
+
+            Map<String, Object> values = new HashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                StructuredSchema.Field field = schema.field(name);
+                if (field == null) {
+                    parser.skipChildren();
+                    continue;
+                }
+                values.put(name, readValue(parser, token, field));
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT) {
+                throw new InvalidLlmResponseException("Response JSON object is incomplete");
+            }
+
+            for (StructuredSchema.Field field : schema.fields()) {
+                if (field.required() && values.get(field.name()) == null) {
+                    throw new InvalidLlmResponseException("Missing required field '" + field.name() + "'");
+                }
+            }
+            return values;
+        } catch (IOException e) {
+            throw new InvalidLlmResponseException("Response is not valid JSON: " + e.getMessage(), e);
+        }
+    }
+
+    private Object readValue(JsonParser parser, JsonToken token, StructuredSchema.Field field) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (field.type() == StructuredSchema.Type.STRING) {
+            if (token != JsonToken.VALUE_STRING) {
+                throw new InvalidLlmResponseException("Field '" + field.name() + "' must be a string");
+            }
+            String value = parser.getText();
+            if (!field.allowedValues().isEmpty() && !field.allowedValues().contains(value)) {
+                throw new InvalidLlmResponseException("Field '" + field.name() + "' has unexpected value '" + value + "'");
+            }
+            return value;
+        }
+
+        if (token != JsonToken.START_ARRAY) {
+            throw new InvalidLlmResponseException("Field '" + field.name() + "' must be an array");
+        }
+        List<String> items = new ArrayList<>();
+        for (JsonToken item = parser.nextToken(); item != JsonToken.END_ARRAY; item = parser.nextToken()) {
+            if (item != JsonToken.VALUE_STRING) {
+                throw new InvalidLlmResponseException("Field '" + field.name() + "' must contain only strings");
+            }
+            String value = parser.getText().trim();
+            if (!value.isEmpty()) {
+                items.add(value);
+            }
+        }
+        return items;
+    }
+}
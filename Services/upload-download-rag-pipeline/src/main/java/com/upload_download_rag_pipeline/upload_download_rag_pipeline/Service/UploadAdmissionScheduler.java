@@ -0,0 +1,247 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
+
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Exception.BusinessException;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Model.Plan;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.config.UploadSchedulerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits uploads before they are spooled to disk. A fixed number of slots is
+ * shared by all users; each user is capped at an in-flight limit for their plan,
+ * and when a slot frees up it goes to the waiting user with the lowest virtual
+ * time, which advances by 1/weight per admitted upload (stride scheduling). A
+ * user with a thousand queued files therefore only gets their plan's share of
+ * slots, and everyone else keeps being served. An upload that waits longer than
+ * the configured maximum is turned away with 503.
+ */
+@Slf4j
+@Service
+public class UploadAdmissionScheduler {
+
+    private final UploadSchedulerProperties properties;
+    private final Map<String, UserQueue> users = new HashMap<>();
+    private final Map<Plan, AtomicInteger> inFlightByPlan = new EnumMap<>(Plan.class);
+    private final Map<Plan, AtomicInteger> queuedByPlan = new EnumMap<>(Plan.class);
+    private final Map<Plan, Timer> waitTimers = new EnumMap<>(Plan.class);
+    private final Map<Plan, Counter> rejections = new EnumMap<>(Plan.class);
+    private final Map<Plan, Counter> expirations = new EnumMap<>(Plan.class);
+
+    private int inFlight;
+    private double virtualTime;
+
+    public UploadAdmissionScheduler(UploadSchedulerProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (Plan plan : Plan.values()) {
+            String tier = plan.name();
+            inFlightByPlan.put(plan, meterRegistry.gauge("upload.admission.in_flight",
+                    Tags.of("plan", tier), new AtomicInteger()));
+            queuedByPlan.put(plan, meterRegistry.gauge("upload.admission.queued",
+                    Tags.of("plan", tier), new AtomicInteger()));
+            waitTimers.put(plan, Timer.builder("upload.admission.wait")
+                    .description("Time an upload waited for a processing slot")
+                    .tag("plan", tier)
+                    .register(meterRegistry));
+            rejections.put(plan, Counter.builder("upload.admission.rejected")
+                    .description("Uploads rejected because the user's queue was full")
+                    .tag("plan", tier)
+                    .register(meterRegistry));
+            expirations.put(plan, Counter.builder("upload.admission.expired")
+                    .description("Uploads rejected because they waited too long for a slot")
+                    .tag("plan", tier)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Completes with a permit once the upload may proceed. The permit must be
+     * released when processing ends; cancelling while still queued gives up the
+     * place in the queue.
+     */
+    public Mono<Permit> acquire(String userId, Plan plan) {
+        Plan tier = plan == null ? Plan.DEFAULT : plan;
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(userId, tier, sink, System.nanoTime());
+            List<Waiter> granted;
+            synchronized (this) {
+                UserQueue queue = users.computeIfAbsent(userId, id -> new UserQueue(tier));
+                queue.plan = tier;
+                if (queue.waiting.size() >= properties.getMaxQueuedPerUser()) {
+                    removeIfIdle(userId, queue);
+                    rejections.get(tier).increment();
+                    sink.error(new BusinessException(
+                            "Too many uploads queued for this account, please retry shortly.",
+                            HttpStatus.TOO_MANY_REQUESTS));
+                    return;
+                }
+                if (queue.waiting.isEmpty() && queue.inFlight == 0) {
+                    // A user returning from idle starts at the current virtual time instead of cashing in saved credit.
+                    queue.pass = Math.max(queue.pass, virtualTime);
+                }
+                queue.waiting.addLast(waiter);
+                queuedByPlan.get(tier).incrementAndGet();
+                granted = dispatch();
+            }
+            sink.onCancel(() -> cancel(waiter));
+            sink.onDispose(Schedulers.parallel().schedule(() -> expire(waiter),
+                    properties.getMaxWait().toMillis(), TimeUnit.MILLISECONDS));
+            grant(granted);
+        });
+    }
+
+    private void cancel(Waiter waiter) {
+        waiter.cancelled.set(true);
+        List<Waiter> granted;
+        synchronized (this) {
+            UserQueue queue = users.get(waiter.userId);
+            if (queue == null || !queue.waiting.remove(waiter)) {
+                return;
+            }
+            queuedByPlan.get(waiter.plan).decrementAndGet();
+            removeIfIdle(waiter.userId, queue);
+            granted = dispatch();
+        }
+        grant(granted);
+    }
+
+    // Only a waiter still in its queue expires; one already picked by dispatch() keeps its slot.
+    private void expire(Waiter waiter) {
+        synchronized (this) {
+            UserQueue queue = users.get(waiter.userId);
+            if (queue == null || !queue.waiting.remove(waiter)) {
+                return;
+            }
+            queuedByPlan.get(waiter.plan).decrementAndGet();
+            removeIfIdle(waiter.userId, queue);
+        }
+        expirations.get(waiter.plan).increment();
+        waiter.sink.error(new BusinessException(
+                "Upload servers are busy, please retry shortly.",
+                HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    private void release(String userId, Plan plan) {
+        List<Waiter> granted;
+        synchronized (this) {
+            inFlight--;
+            inFlightByPlan.get(plan).decrementAndGet();
+            UserQueue queue = users.get(userId);
+            if (queue != null) {
+                queue.inFlight--;
+                removeIfIdle(userId, queue);
+            }
+            granted = dispatch();
+        }
+        grant(granted);
+    }
+
+    // Caller holds the monitor. Returns the waiters to complete once it is released.
+    private List<Waiter> dispatch() {
+        List<Waiter> granted = new ArrayList<>();
+        while (inFlight < properties.getMaxConcurrent()) {
+            UserQueue next = null;
+            for (UserQueue queue : users.values()) {
+                if (!queue.waiting.isEmpty() && queue.inFlight < properties.perUserLimit(queue.plan)
+                        && (next == null || queue.pass < next.pass)) {
+                    next = queue;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            Waiter waiter = next.waiting.pollFirst();
+            virtualTime = next.pass;
+            next.pass += 1.0 / properties.weight(next.plan);
+            next.inFlight++;
+            inFlight++;
+            queuedByPlan.get(waiter.plan).decrementAndGet();
+            inFlightByPlan.get(waiter.plan).incrementAndGet();
+            granted.add(waiter);
+        }
+        return granted;
+    }
+
+    private void grant(List<Waiter> granted) {
+        for (Waiter waiter : granted) {
+            waitTimers.get(waiter.plan).record(System.nanoTime() - waiter.enqueuedAt, TimeUnit.NANOSECONDS);
+            Permit permit = new Permit(waiter.userId, waiter.plan);
+            waiter.sink.success(permit);
+            if (waiter.cancelled.get()) {
+                // Cancelled between being picked and being completed: nobody will release the slot otherwise.
+                permit.release();
+            }
+        }
+    }
+
+    private void removeIfIdle(String userId, UserQueue queue) {
+        if (queue.waiting.isEmpty() && queue.inFlight <= 0) {
+            users.remove(userId);
+        }
+    }
+
+    /** Slot held by an admitted upload; releasing twice is a no-op. */
+    public final class Permit {
+        private final String userId;
+        private final Plan plan;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(String userId, Plan plan) {
+            this.userId = userId;
+            this.plan = plan;
+        }
+
+        public Plan plan() {
+            return plan;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                UploadAdmissionScheduler.this.release(userId, plan);
+            }
+        }
+    }
+
+    private static final class UserQueue {
+        private final ArrayDeque<Waiter> waiting = new ArrayDeque<>();
+        private Plan plan;
+        private int inFlight;
+        private double pass;
+
+        private UserQueue(Plan plan) {
+            this.plan = plan;
+        }
+    }
+
+    private static final class Waiter {
+        private final String userId;
+        private final Plan plan;
+        private final MonoSink<Permit> sink;
+        private final long enqueuedAt;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        private Waiter(String userId, Plan plan, MonoSink<Permit> sink, long enqueuedAt) {
+            this.userId = userId;
+            this.plan = plan;
+            this.sink = sink;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
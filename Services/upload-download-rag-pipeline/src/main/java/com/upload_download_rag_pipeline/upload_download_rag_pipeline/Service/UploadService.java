@@ -1,12 +1,16 @@
 package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
 
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.ExtractedContent;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.ExtractionHandoff;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.MetadataAnalysis;
 import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.S3UploadResult;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.StorageUsageEvent;
 import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Exception.BusinessException;
 import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Exception.StorageQuotaExceededException;
 import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Model.Plan;
 import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Model.ProcessedDocument;
-import io.github.resilience4j.circuitbreaker.CircuitBreaker;
-import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.config.UploadStageMetrics;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.config.UploadStageMetrics.Stage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.tika.Tika;
@@ -14,36 +18,34 @@ import org.apache.tika.metadata.Metadata;
 import org.apache.tika.metadata.TikaCoreProperties;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.http.HttpHeaders;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class UploadService {
 
-    @Value("${authServiceUrl}")
-    private String authServiceUrl;
-
     private final SecurityService securityService;
     private final S3Service s3Service;
     private final QueueService queueService;
-    private final RestClient restClient;
     private final RedisBanService redisBanService;
     private final StringRedisTemplate stringRedisTemplate;
-    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final PlanService planService;
+    private final UploadStageMetrics stageMetrics;
 
     private final Tika tika = new Tika();
 
@@ -52,25 +54,42 @@ public class UploadService {
     private static final long ASYNC_TIMEOUT_SECONDS = 90;
     private static final long POLL_INTERVAL_MS = 100;
 
+    @Value("${extraction.inline-max-bytes:16384}")
+    private int inlineExtractionMaxBytes;
+
+    @Value("${extraction.sidecar-prefix:_extracted/}")
+    private String sidecarPrefix;
+
+    private record ScannedFile(String fileType, String mimeType, ExtractedContent content, MetadataAnalysis analysis) {}
+
 
     public ProcessedDocument processFile(InputStream fileStream, String fileName, String userId, Jwt token) {
+        return processFile(fileStream, fileName, userId, token, null);
+    }
+
+    /** {@code plan} may be passed when the caller already resolved it, saving a second lookup. */
+    public ProcessedDocument processFile(InputStream fileStream, String fileName, String userId, Jwt token, Plan plan) {
         // 1. Pre-Check: Is User Banned?
         checkBanStatus(userId, fileName);
 
         Path tempFilePath = null;
         try {
             // 2. Persist to Temp File for Processing
+            long spoolStart = System.nanoTime();
             tempFilePath = createTempFile(fileStream, fileName);
+            stageMetrics.record(Stage.SPOOL, spoolStart);
             long fileSize = Files.size(tempFilePath);
 
             // 3. Security & File Type Validation
-            String fileType = validateFileSecurity(tempFilePath, fileName, userId, token);
+            long scanStart = System.nanoTime();
+            ScannedFile scanned = validateFileSecurity(tempFilePath, fileName, userId, token);
+            stageMetrics.record(Stage.SCAN, scanStart);
 
             // 4. Quota Check
-            enforceStorageQuota(userId, fileSize, token);
+            enforceStorageQuota(userId, fileSize, token, plan);
 
             // 5. Upload & Process
-            return uploadAndConfirm(tempFilePath, fileName, fileType, userId, fileSize, token);
+            return uploadAndConfirm(tempFilePath, fileName, scanned, userId, fileSize, token);
 
         } catch (BusinessException | StorageQuotaExceededException e) {
             // Rethrow domain-specific exceptions as-is so the Controller/Test receives them directly
@@ -100,12 +119,12 @@ public class UploadService {
         return tempPath;
     }
 
-    private String validateFileSecurity(Path filePath, String fileName, String userId, Jwt token) throws Exception {
-        try (InputStream tikaStream = Files.newInputStream(filePath);
-             InputStream securityStream = Files.newInputStream(filePath)) {
+    private ScannedFile validateFileSecurity(Path filePath, String fileName, String userId, Jwt token) throws Exception {
+        try (InputStream tikaStream = Files.newInputStream(filePath)) {
 
-            String fileType = detectFileType(tikaStream, fileName);
-            Map<String, Object> result = securityService.checkFileSecurity(securityStream, fileName, fileType);
+            String mimeType = detectMimeType(tikaStream, fileName);
+            String fileType = toFileType(mimeType, fileName);
+            Map<String, Object> result = securityService.checkFileSecurity(filePath, fileName, fileType);
 
             String status = (String) result.get("security_status");
             if ("unsafe".equalsIgnoreCase(status)) {
@@ -117,13 +136,15 @@ public class UploadService {
             if ("error".equalsIgnoreCase(status)) {
                 throw new BusinessException("Security Check Failed: " + result.get("rejection_reason"));
             }
-            return fileType;
+            return new ScannedFile(fileType, mimeType,
+                    (ExtractedContent) result.get(SecurityService.EXTRACTED_CONTENT),
+                    (MetadataAnalysis) result.get(SecurityService.METADATA_ANALYSIS));
         }
     }
 
-    private void enforceStorageQuota(String userId, long newFileSize, Jwt token) {
+    private void enforceStorageQuota(String userId, long newFileSize, Jwt token, Plan plan) {
         long currentUsage = s3Service.getUserFolderSize(userId);
-        Plan userPlan = fetchUserPlanSafely(userId, token);
+        Plan userPlan = plan != null ? plan : planService.resolvePlan(userId, token);
         long maxQuota = calculateQuota(userPlan);
 
         if (currentUsage + newFileSize > maxQuota) {
@@ -136,24 +157,6 @@ public class UploadService {
         }
     }
 
-    private Plan fetchUserPlanSafely(String userId, Jwt token) {
-        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("authService");
-        Supplier<Plan> planSupplier = CircuitBreaker.decorateSupplier(circuitBreaker, () ->
-                restClient.get()
-                        .uri(authServiceUrl, userId)
-                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token.getTokenValue())
-                        .retrieve()
-                        .body(Plan.class)
-        );
-
-        try {
-            return planSupplier.get();
-        } catch (Exception e) {
-            log.warn("Auth Service unavailable. Defaulting to BASIC plan. Error: {}", e.getMessage());
-            return Plan.BASIC;
-        }
-    }
-
     private long calculateQuota(Plan plan) {
         if (plan == null) return GIGABYTE; // Default fallback
         return switch (plan) {
@@ -164,18 +167,32 @@ public class UploadService {
         };
     }
 
-    private ProcessedDocument uploadAndConfirm(Path filePath, String fileName, String fileType, String userId, long fileSize, Jwt token) throws IOException {
+    private ProcessedDocument uploadAndConfirm(Path filePath, String fileName, ScannedFile scanned, String userId, long fileSize, Jwt token) throws IOException {
+        String fileType = scanned.fileType();
+        String sidecarKey = null;
         try (InputStream s3Stream = Files.newInputStream(filePath)) {
             String s3Key = userId + "/" + fileName;
 
             // Upload
+            long putStart = System.nanoTime();
             S3UploadResult uploadResult = s3Service.uploadFile(s3Key, s3Stream);
+            stageMetrics.record(Stage.S3_PUT, putStart);
+            publishStorageUsage(userId, s3Key, uploadResult);
 
             // Queue Metadata Processing
-            queueService.publishMetadataRequest(fileName, fileType, uploadResult.fileUrl(), userId, fileSize, token.getSubject());
+            ExtractionHandoff handoff = handOffExtraction(scanned, s3Key);
+            sidecarKey = handoff.sidecarKey();
+            queueService.publishMetadataRequest(fileName, fileType, uploadResult.fileUrl(), userId, fileSize, token.getSubject(),
+                    handoff, scanned.analysis());
 
             // Wait for processing confirmation
+            long waitStart = System.nanoTime();
             String confirmedFileId = waitForConfirmation(userId, fileName);
+            stageMetrics.record(Stage.KAFKA_WAIT, waitStart);
+            if (confirmedFileId == null && sidecarKey != null) {
+                // If the request is still processed later, tags-generation extracts from the file instead.
+                s3Service.deleteCompressed(sidecarKey);
+            }
 
             return ProcessedDocument.builder()
                     .id(confirmedFileId)
@@ -186,9 +203,27 @@ public class UploadService {
                     .userId(userId)
                     .securityStatus("safe")
                     .build();
+        } catch (IOException | RuntimeException e) {
+            if (sidecarKey != null) {
+                s3Service.deleteCompressed(sidecarKey);
+            }
+            throw e;
         }
     }
 
+    /**
+     * Charges the user the size difference against the object this upload replaced. The event id is
+     * derived from the stored version, so a redelivered event is dropped but a later re-upload is not.
+     */
+    private void publishStorageUsage(String userId, String s3Key, S3UploadResult uploadResult) {
+        long delta = uploadResult.fileSize() - uploadResult.previousSize();
+        if (delta == 0) {
+            return;
+        }
+        String eventId = UUID.nameUUIDFromBytes((s3Key + "@" + uploadResult.revision()).getBytes(StandardCharsets.UTF_8)).toString();
+        queueService.publishStorageUsage(new StorageUsageEvent(userId, delta, eventId));
+    }
+
     private String waitForConfirmation(String userId, String fileName) {
         String key = CONFIRMATION_KEY_PREFIX + userId + ":" + fileName;
         log.info("Polling for confirmation key: {}", key);
@@ -223,11 +258,43 @@ public class UploadService {
         }
     }
 
-    private String detectFileType(InputStream stream, String fileName) throws IOException {
+    /**
+     * Passes the security scan's extraction on to tags-generation: inline when it fits in
+     * {@code extraction.inline-max-bytes}, otherwise as a gzip sidecar object. A failed
+     * sidecar write only costs tags-generation a download and parse, so it is not fatal.
+     */
+    private ExtractionHandoff handOffExtraction(ScannedFile scanned, String s3Key) {
+        ExtractedContent content = scanned.content();
+        if (content == null || content.text().isBlank()) {
+            return ExtractionHandoff.mimeTypeOnly(scanned.mimeType());
+        }
+
+        byte[] text = content.text().getBytes(StandardCharsets.UTF_8);
+        if (text.length <= inlineExtractionMaxBytes) {
+            return new ExtractionHandoff(scanned.mimeType(), content.text(), content.truncated(), null);
+        }
+
+        String sidecarKey = sidecarPrefix + s3Key + ".txt.gz";
+        try {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(text.length / 3);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(text);
+            }
+            s3Service.uploadCompressed(sidecarKey, compressed.toByteArray(), "text/plain; charset=utf-8");
+            return new ExtractionHandoff(scanned.mimeType(), null, content.truncated(), sidecarKey);
+        } catch (Exception e) {
+            log.warn("Could not store extraction sidecar {}, tags-generation will re-extract", sidecarKey, e);
+            return ExtractionHandoff.mimeTypeOnly(scanned.mimeType());
+        }
+    }
+
+    private String detectMimeType(InputStream stream, String fileName) throws IOException {
         Metadata metadata = new Metadata();
         metadata.set(TikaCoreProperties.RESOURCE_NAME_KEY, fileName);
-        String mimeType = tika.detect(stream, metadata);
+        return tika.detect(stream, metadata);
+    }
 
+    private String toFileType(String mimeType, String fileName) {
         // Simple mapping based on mime-type or extension
         if (mimeType.startsWith("text/") || Set.of("application/pdf", "application/msword", "application/vnd.openxmlformats-officedocument.wordprocessingml.document").contains(mimeType)) {
             return "text";
@@ -0,0 +1,72 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.config;
+
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service.RedisBanService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Refuses guarded requests from banned users before the controller starts
+ * spooling the multipart body. Answers from {@link RedisBanService}'s local
+ * cache, so it only reaches Redis when a user's entry has expired.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class BanCheckWebFilter implements WebFilter {
+
+    private static final byte[] BANNED_BODY = ("{\"securityStatus\":\"banned\","
+            + "\"rejectionReason\":\"Upload rejected: Account suspended due to policy violations.\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final RedisBanService redisBanService;
+    private final BanProperties banProperties;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        boolean guarded = banProperties.getCache().getGuardedPaths().stream()
+                .anyMatch(pattern -> pathMatcher.match(pattern, path));
+        if (!guarded) {
+            return chain.filter(exchange);
+        }
+
+        return ReactiveSecurityContextHolder.getContext()
+                .mapNotNull(context -> context.getAuthentication() instanceof JwtAuthenticationToken token
+                        ? userId(token.getToken().getClaims())
+                        : null)
+                .defaultIfEmpty("")
+                // A cache miss falls through to a blocking Redis lookup.
+                .publishOn(Schedulers.boundedElastic())
+                .flatMap(userId -> {
+                    if (userId.isEmpty() || !redisBanService.isUserBanned(userId)) {
+                        return chain.filter(exchange);
+                    }
+                    log.warn("Request to {} rejected: User {} is banned.", path, userId);
+                    // 400 like any other rejected upload; the body carries the securityStatus UploadZone shows the ban for.
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.setStatusCode(HttpStatus.BAD_REQUEST);
+                    response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(BANNED_BODY)));
+                });
+    }
+
+    private static String userId(Map<String, Object> claims) {
+        Object userId = claims.getOrDefault("userId", claims.getOrDefault("uid", claims.get("sub")));
+        return userId == null ? null : String.valueOf(userId);
+    }
+}
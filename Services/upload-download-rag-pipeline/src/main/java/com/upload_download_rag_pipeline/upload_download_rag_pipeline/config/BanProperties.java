@@ -14,6 +14,7 @@ public class BanProperties {
 
     private Redis redis;
     private List<Rule> rules;
+    private Cache cache = new Cache();
 
     @Data
     public static class Redis {
@@ -22,6 +23,18 @@ public class BanProperties {
         private String lifetimeValue;
     }
 
+    @Data
+    public static class Cache {
+        /** How long a confirmed ban is trusted locally; new bans are pushed over {@link #invalidationChannel}. */
+        private Duration positiveTtl = Duration.ofMinutes(1);
+        /** How long "not banned" is trusted locally, bounding how late a missed invalidation can be noticed. */
+        private Duration negativeTtl = Duration.ofSeconds(5);
+        private long maximumSize = 100_000;
+        private String invalidationChannel = "user:ban:invalidate";
+        /** Requests to these paths from banned users are refused before the body is read. */
+        private List<String> guardedPaths = List.of("/api/genai/**");
+    }
+
     @Data
     public static class Rule {
         private int count;
@@ -0,0 +1,36 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExtractionConfig {
+
+    /**
+     * Dedicated pool for Tika parsing. It is bounded and rejects when full, so a
+     * burst of pathological documents can't take the request threads with it.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService extractionExecutor(
+            @Value("${extraction.pool-size:4}") int poolSize,
+            @Value("${extraction.queue-capacity:64}") int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "tika-extract-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
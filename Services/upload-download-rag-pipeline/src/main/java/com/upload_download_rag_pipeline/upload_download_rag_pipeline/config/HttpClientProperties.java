@@ -0,0 +1,43 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/** Settings for the pooled client used for calls to other services. */
+@Data
+@Component
+@ConfigurationProperties(prefix = "http-client")
+public class HttpClientProperties {
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /** Longest wait for response data; a slow peer fails the call instead of holding the thread. */
+    private Duration responseTimeout = Duration.ofSeconds(5);
+
+    /** Longest wait for a free pooled connection. */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+    private int maxTotalConnections = 100;
+    private int maxConnectionsPerRoute = 20;
+
+    /** Keep-alive applied when the server does not send a Keep-Alive header. */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /** Idle connections older than this are closed by the pool's evictor. */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    /** Pooled connections idle longer than this are checked before reuse. */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    private Hedging hedging = new Hedging();
+
+    @Data
+    public static class Hedging {
+        private boolean enabled = false;
+        /** A second, identical GET is sent if the first has not answered within this delay. */
+        private Duration delay = Duration.ofMillis(300);
+    }
+}
@@ -17,6 +17,15 @@ public class LangChainConfig {
 
     private static final Logger log = LoggerFactory.getLogger(LangChainConfig.class);
 
+    // Metadata fields are only filled in combined-analysis mode; the plain security prompt leaves them out.
+    public static final StructuredSchema SECURITY_SCHEMA = StructuredSchema.builder("security_verdict")
+            .requiredString("security_status", "safe", "unsafe")
+            .optionalString("rejection_reason")
+            .optionalStringArray("tags")
+            .optionalStringArray("categories")
+            .optionalString("summary")
+            .build();
+
     @Value("${genai.gemini.api-key}")
     private String geminiKey;
 
@@ -41,6 +50,7 @@ public class LangChainConfig {
                 .modelName(textModel)
                 .temperature(0.3)
                 .timeout(Duration.ofSeconds(60))
+                .responseFormat(SECURITY_SCHEMA.toResponseFormat())
                 .build());
 
         models.put("code", GoogleAiGeminiChatModel.builder()
@@ -48,6 +58,7 @@ public class LangChainConfig {
                 .modelName(codeModel)
                 .temperature(0.1)
                 .timeout(Duration.ofSeconds(60))
+                .responseFormat(SECURITY_SCHEMA.toResponseFormat())
                 .build());
 
         models.put("image", GoogleAiGeminiChatModel.builder()
@@ -55,6 +66,7 @@ public class LangChainConfig {
                 .modelName(imageModel)
                 .temperature(0.5)
                 .timeout(Duration.ofSeconds(60))
+                .responseFormat(SECURITY_SCHEMA.toResponseFormat())
                 .build());
 
 
@@ -63,6 +75,7 @@ public class LangChainConfig {
                 .modelName(videoModel)
                 .temperature(0.6)
                 .timeout(Duration.ofSeconds(60))
+                .responseFormat(SECURITY_SCHEMA.toResponseFormat())
                 .build());
 
         models.put("default", GoogleAiGeminiChatModel.builder()
@@ -70,6 +83,7 @@ public class LangChainConfig {
                 .modelName(textModel)
                 .temperature(0.4)
                 .timeout(Duration.ofSeconds(60))
+                .responseFormat(SECURITY_SCHEMA.toResponseFormat())
                 .build());
 
         return models;
@@ -0,0 +1,65 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.PathMatcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private String keyPrefix = "ratelimit:upload:";
+
+    /** Most tokens taken from Redis in one call and spent locally; kept to a tenth of a rule's capacity. */
+    private int leaseSize = 5;
+
+    /** How long locally leased tokens stay usable before they are dropped. */
+    private Duration leaseTtl = Duration.ofSeconds(1);
+
+    /** Let requests through when Redis cannot be reached instead of rejecting them. */
+    private boolean failOpen = true;
+
+    /**
+     * Checked in order; the first rule whose path and method match applies. The upload rule
+     * matches upload.scheduler.max-queued-per-user: the UI sends a dropped folder in parallel,
+     * and the admission scheduler, not this limit, is what paces those files.
+     */
+    private List<Rule> rules = new ArrayList<>(List.of(
+            Rule.of("upload", "/api/genai/process", "POST", 100, Duration.ofMinutes(1)),
+            Rule.of("default", "/api/**", null, 120, Duration.ofMinutes(1))));
+
+    @Data
+    public static class Rule {
+        private String name;
+        private String path;
+        private List<String> methods = new ArrayList<>();
+        /** Burst size; the bucket refills completely over {@link #period}. */
+        private int capacity;
+        private Duration period;
+
+        public static Rule of(String name, String path, String method, int capacity, Duration period) {
+            Rule rule = new Rule();
+            rule.setName(name);
+            rule.setPath(path);
+            if (method != null) {
+                rule.getMethods().add(method);
+            }
+            rule.setCapacity(capacity);
+            rule.setPeriod(period);
+            return rule;
+        }
+
+        public boolean matches(String method, String requestPath, PathMatcher matcher) {
+            return (methods.isEmpty() || methods.stream().anyMatch(m -> m.equalsIgnoreCase(method)))
+                    && matcher.match(path, requestPath);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.config;
+
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service.RateLimiterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+/**
+ * Rejects requests over their endpoint's rate with 429 before the controller
+ * starts reading the body. Added to the security chain after authorization so
+ * the bucket can be keyed by the caller's userId; unauthenticated callers are
+ * keyed by address.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitWebFilter implements WebFilter {
+
+    private final RateLimiterService rateLimiterService;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String method = exchange.getRequest().getMethod().name();
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+
+        RateLimitProperties.Rule rule = rateLimiterService.resolveRule(method, path).orElse(null);
+        if (rule == null) {
+            return chain.filter(exchange);
+        }
+
+        return ReactiveSecurityContextHolder.getContext()
+                .mapNotNull(context -> userId(context.getAuthentication()))
+                .defaultIfEmpty("ip:" + remoteAddress(exchange))
+                // The Redis call is blocking, so it must not run on the event loop.
+                .publishOn(Schedulers.boundedElastic())
+                .map(clientId -> rateLimiterService.tryAcquire(rule, clientId))
+                .flatMap(decision -> {
+                    if (decision.allowed()) {
+                        return chain.filter(exchange);
+                    }
+                    log.debug("Rate limit '{}' exceeded on {} {}", rule.getName(), method, path);
+                    exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                    exchange.getResponse().getHeaders()
+                            .set(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+                    return exchange.getResponse().setComplete();
+                });
+    }
+
+    private static String userId(Authentication authentication) {
+        if (!(authentication instanceof JwtAuthenticationToken token)) {
+            return null;
+        }
+        Map<String, Object> claims = token.getToken().getClaims();
+        Object userId = claims.getOrDefault("userId", claims.getOrDefault("uid", claims.get("sub")));
+        return userId == null ? null : "user:" + userId;
+    }
+
+    private static String remoteAddress(ServerWebExchange exchange) {
+        InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+        return address == null || address.getAddress() == null
+                ? "unknown"
+                : address.getAddress().getHostAddress();
+    }
+}
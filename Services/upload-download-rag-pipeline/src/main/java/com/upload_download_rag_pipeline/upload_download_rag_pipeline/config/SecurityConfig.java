@@ -1,10 +1,13 @@
 package com.upload_download_rag_pipeline.upload_download_rag_pipeline.config;
 
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service.RateLimiterService;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service.RedisBanService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
@@ -32,7 +35,10 @@ public class SecurityConfig {
     public SecurityWebFilterChain securityWebFilterChain(
             ServerHttpSecurity http,
             ReactiveJwtAuthenticationConverterAdapter jwtAuthenticationConverter,
-            ReactiveJwtDecoder reactiveJwtDecoder) {
+            ReactiveJwtDecoder reactiveJwtDecoder,
+            RateLimiterService rateLimiterService,
+            RedisBanService redisBanService,
+            BanProperties banProperties) {
 
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -52,7 +58,9 @@ public class SecurityConfig {
 
                 .oauth2ResourceServer(oauth2 -> oauth2
                         .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter))
-                );
+                )
+                .addFilterAfter(new RateLimitWebFilter(rateLimiterService), SecurityWebFiltersOrder.AUTHORIZATION)
+                .addFilterAfter(new BanCheckWebFilter(redisBanService, banProperties), SecurityWebFiltersOrder.AUTHORIZATION);
 
         return http.build();
     }
@@ -109,7 +117,8 @@ public class SecurityConfig {
 
         configuration.setExposedHeaders(Arrays.asList(
                 "Authorization",
-                "Content-Type"
+                "Content-Type",
+                "Retry-After"
         ));
 
         configuration.setAllowCredentials(true);
@@ -0,0 +1,47 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.config;
+
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Model.Plan;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "upload.scheduler")
+public class UploadSchedulerProperties {
+
+    /** Uploads processed at once across all users. */
+    private int maxConcurrent = 16;
+
+    /** Uploads a single user may have waiting; beyond this new ones are rejected with 429. */
+    private int maxQueuedPerUser = 100;
+
+    /** How long an upload may wait for a slot; beyond this it is rejected with 503. */
+    private Duration maxWait = Duration.ofSeconds(60);
+
+    /** Share of freed slots each plan receives relative to the others. */
+    private Map<Plan, Integer> weights = new EnumMap<>(Map.of(
+            Plan.DEFAULT, 1,
+            Plan.BASIC, 1,
+            Plan.PRO, 2,
+            Plan.TEAM, 4));
+
+    /** Uploads a single user on each plan may have in flight. */
+    private Map<Plan, Integer> perUserLimits = new EnumMap<>(Map.of(
+            Plan.DEFAULT, 1,
+            Plan.BASIC, 2,
+            Plan.PRO, 4,
+            Plan.TEAM, 8));
+
+    public int weight(Plan plan) {
+        return Math.max(1, weights.getOrDefault(plan, 1));
+    }
+
+    public int perUserLimit(Plan plan) {
+        return Math.max(1, perUserLimits.getOrDefault(plan, 1));
+    }
+}
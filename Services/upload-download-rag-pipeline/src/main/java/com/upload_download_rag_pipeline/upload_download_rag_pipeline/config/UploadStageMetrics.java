@@ -0,0 +1,57 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of each upload stage as {@code upload.stage{stage=...}}. The timers are
+ * registered once with percentile histograms and per-stage SLO buckets, so a
+ * recording is a single lookup and the histogram buckets carry trace exemplars.
+ * Buckets can be replaced with {@code management.metrics.distribution.slo.upload.stage}.
+ */
+@Component
+public class UploadStageMetrics {
+
+    public enum Stage {
+        SPOOL("spool", ms(50), ms(100), ms(250), ms(500), ms(1000), ms(2000)),
+        SCAN("scan", ms(500), ms(1000), ms(2000), ms(5000), ms(10_000), ms(20_000)),
+        S3_PUT("s3Put", ms(100), ms(250), ms(500), ms(1000), ms(2000), ms(5000)),
+        KAFKA_WAIT("kafkaWait", ms(1000), ms(2000), ms(5000), ms(10_000), ms(30_000), ms(60_000), ms(90_000));
+
+        private final String tag;
+        private final Duration[] slo;
+
+        Stage(String tag, Duration... slo) {
+            this.tag = tag;
+            this.slo = slo;
+        }
+
+        private static Duration ms(long millis) {
+            return Duration.ofMillis(millis);
+        }
+    }
+
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+
+    public UploadStageMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, Timer.builder("upload.stage")
+                    .description("Time spent in one stage of an upload")
+                    .tag("stage", stage.tag)
+                    .publishPercentileHistogram()
+                    .serviceLevelObjectives(stage.slo)
+                    .register(meterRegistry));
+        }
+    }
+
+    /** Records the time since {@code startNanos}, taken from {@link System#nanoTime()}. */
+    public void record(Stage stage, long startNanos) {
+        timers.get(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
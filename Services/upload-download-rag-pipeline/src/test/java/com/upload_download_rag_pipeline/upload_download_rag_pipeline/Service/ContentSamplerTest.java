@@ -0,0 +1,60 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
+
+import org.apache.tika.exception.WriteLimitReachedException;
+import org.junit.jupiter.api.Test;
+import org.xml.sax.helpers.AttributesImpl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentSamplerTest {
+
+    @Test
+    void shortDocument_ShouldBeReturnedVerbatim() throws Exception {
+        ContentSampler sampler = new ContentSampler(1000, 1_000_000);
+
+        write(sampler, "hello   world");
+
+        assertFalse(sampler.isSampled());
+        assertEquals("hello world", sampler.toExcerpt());
+    }
+
+    @Test
+    void longDocument_ShouldKeepOutlineBeginningMiddleAndEndWithinBudget() throws Exception {
+        ContentSampler sampler = new ContentSampler(1000, 10_000_000);
+
+        heading(sampler, "h1", "Introduction");
+        write(sampler, "FIRSTWORDS " + "alpha ".repeat(50_000));
+        heading(sampler, "h2", "Findings");
+        write(sampler, "MIDDLEMARK " + "beta ".repeat(50_000));
+        write(sampler, "LASTWORDS");
+
+        String excerpt = sampler.toExcerpt();
+
+        assertTrue(sampler.isSampled());
+        assertTrue(excerpt.contains("- Introduction"));
+        assertTrue(excerpt.contains("- Findings"));
+        assertTrue(excerpt.contains("FIRSTWORDS"));
+        assertTrue(excerpt.contains("beta"), "middle windows should reach the second half");
+        assertTrue(excerpt.endsWith("LASTWORDS"));
+        assertTrue(excerpt.length() < 1300, "excerpt should stay near the budget, was " + excerpt.length());
+    }
+
+    @Test
+    void scanLimit_ShouldStopTheParse() {
+        ContentSampler sampler = new ContentSampler(100, 500);
+
+        assertThrows(WriteLimitReachedException.class, () -> write(sampler, "x".repeat(1000)));
+        assertTrue(sampler.isSampled());
+    }
+
+    private static void heading(ContentSampler sampler, String tag, String text) throws Exception {
+        sampler.startElement("", tag, tag, new AttributesImpl());
+        write(sampler, text);
+        sampler.endElement("", tag, tag);
+    }
+
+    private static void write(ContentSampler sampler, String text) throws Exception {
+        char[] chars = text.toCharArray();
+        sampler.characters(chars, 0, chars.length);
+    }
+}
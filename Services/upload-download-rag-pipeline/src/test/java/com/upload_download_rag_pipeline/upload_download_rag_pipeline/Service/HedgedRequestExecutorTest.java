@@ -0,0 +1,127 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
+
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.config.HttpClientProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgedRequestExecutorTest {
+
+    private HttpClientProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private HedgedRequestExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new HttpClientProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new HedgedRequestExecutor(properties, meterRegistry);
+    }
+
+    @Test
+    void execute_HedgingDisabled_ShouldCallOnce() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals("ok", executor.execute(() -> {
+            calls.incrementAndGet();
+            return "ok";
+        }));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_FastPrimary_ShouldNotHedge() {
+        properties.getHedging().setEnabled(true);
+        properties.getHedging().setDelay(Duration.ofSeconds(1));
+
+        assertEquals("ok", executor.execute(() -> "ok"));
+        assertEquals(0.0, meterRegistry.counter("http.client.hedge.sent").count());
+    }
+
+    @Test
+    void execute_SlowPrimary_ShouldReturnHedgedAnswer() {
+        properties.getHedging().setEnabled(true);
+        properties.getHedging().setDelay(Duration.ofMillis(20));
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        String result = executor.execute(() -> {
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "primary";
+            }
+            return "hedge";
+        });
+        release.countDown();
+
+        assertEquals("hedge", result);
+        assertEquals(1.0, meterRegistry.counter("http.client.hedge.sent").count());
+        assertEquals(1.0, meterRegistry.counter("http.client.hedge.won").count());
+    }
+
+    @Test
+    void execute_PrimaryFails_ShouldRethrowOriginalException() {
+        properties.getHedging().setEnabled(true);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> executor.execute(() -> {
+                    throw new IllegalArgumentException("bad");
+                }));
+        assertEquals("bad", error.getMessage());
+    }
+
+    @Test
+    void execute_HedgeWins_ShouldCancelSlowPrimary() throws Exception {
+        properties.getHedging().setEnabled(true);
+        properties.getHedging().setDelay(Duration.ofMillis(20));
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch primaryInterrupted = new CountDownLatch(1);
+
+        String result = executor.execute(() -> {
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    primaryInterrupted.countDown();
+                }
+                return "primary";
+            }
+            return "hedge";
+        });
+
+        assertEquals("hedge", result);
+        assertTrue(primaryInterrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void execute_BothAttemptsFail_ShouldRethrowOriginalException() {
+        properties.getHedging().setEnabled(true);
+        properties.getHedging().setDelay(Duration.ofMillis(20));
+        AtomicInteger calls = new AtomicInteger();
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> executor.execute(() -> {
+                    if (calls.incrementAndGet() == 1) {
+                        try {
+                            Thread.sleep(100);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    throw new IllegalArgumentException("bad");
+                }));
+        assertEquals("bad", error.getMessage());
+        assertEquals(1.0, meterRegistry.counter("http.client.hedge.sent").count());
+    }
+}
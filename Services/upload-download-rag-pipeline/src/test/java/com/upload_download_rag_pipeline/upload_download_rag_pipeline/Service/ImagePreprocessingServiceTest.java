@@ -0,0 +1,80 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
+
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.PreparedImage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImagePreprocessingServiceTest {
+
+    private ImagePreprocessingService preprocessingService;
+
+    @BeforeEach
+    void setUp() {
+        preprocessingService = new ImagePreprocessingService();
+        ReflectionTestUtils.setField(preprocessingService, "maxDimension", 512);
+        ReflectionTestUtils.setField(preprocessingService, "jpegQuality", 0.85f);
+        ReflectionTestUtils.setField(preprocessingService, "targetBytes", 100_000);
+    }
+
+    @Test
+    void prepare_LargePng_ShouldDownscaleAndReencodeAsJpeg() throws Exception {
+        byte[] png = encode(new BufferedImage(4000, 3000, BufferedImage.TYPE_INT_ARGB), "png");
+
+        PreparedImage image = preprocessingService.prepare(new ByteArrayInputStream(png));
+
+        assertTrue(image.normalized());
+        assertEquals("image/jpeg", image.mimeType());
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(Base64.getDecoder().decode(image.base64())));
+        assertEquals(512, decoded.getWidth());
+        assertEquals(384, decoded.getHeight());
+    }
+
+    @Test
+    void prepare_SmallImage_ShouldKeepItsSize() throws Exception {
+        byte[] png = encode(new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB), "png");
+
+        PreparedImage image = preprocessingService.prepare(new ByteArrayInputStream(png));
+
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(Base64.getDecoder().decode(image.base64())));
+        assertEquals(200, decoded.getWidth());
+        assertEquals(100, decoded.getHeight());
+    }
+
+    @Test
+    void prepare_UndecodableBytes_ShouldPassThroughOriginal() throws Exception {
+        byte[] bytes = "not really an image".getBytes(StandardCharsets.UTF_8);
+
+        PreparedImage image = preprocessingService.prepare(new ByteArrayInputStream(bytes));
+
+        assertFalse(image.normalized());
+        assertArrayEquals(bytes, Base64.getDecoder().decode(image.base64()));
+    }
+
+    @Test
+    void prepare_TruncatedPng_ShouldPassThroughOriginal() throws Exception {
+        byte[] png = encode(new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB), "png");
+        byte[] truncated = Arrays.copyOf(png, 64);
+
+        PreparedImage image = preprocessingService.prepare(new ByteArrayInputStream(truncated));
+
+        assertFalse(image.normalized());
+        assertArrayEquals(truncated, Base64.getDecoder().decode(image.base64()));
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
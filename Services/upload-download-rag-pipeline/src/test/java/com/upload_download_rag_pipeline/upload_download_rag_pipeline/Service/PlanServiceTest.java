@@ -0,0 +1,116 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
+
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Model.Plan;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.config.HttpClientProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlanServiceTest {
+
+    @Mock private RestClient restClient;
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private CircuitBreakerRegistry circuitBreakerRegistry;
+    @Mock private CircuitBreaker circuitBreaker;
+    @Mock private Jwt jwt;
+
+    // Mocking the RestClient chain
+    @Mock private RestClient.RequestHeadersUriSpec requestHeadersUriSpec;
+    @Mock private RestClient.RequestHeadersSpec requestHeadersSpec;
+    @Mock private RestClient.ResponseSpec responseSpec;
+
+    private PlanService planService;
+
+    @BeforeEach
+    void setUp() {
+        HedgedRequestExecutor directExecutor = new HedgedRequestExecutor(new HttpClientProperties(), new SimpleMeterRegistry());
+        planService = new PlanService(restClient, redisTemplate, circuitBreakerRegistry, directExecutor, Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(planService, "authServiceUrl", "http://auth-service/{id}");
+        ReflectionTestUtils.setField(planService, "sharedTtl", Duration.ofHours(1));
+
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(jwt.getTokenValue()).thenReturn("dummy-token");
+        lenient().when(circuitBreakerRegistry.circuitBreaker(anyString())).thenReturn(circuitBreaker);
+        lenient().when(circuitBreaker.executeSupplier(any(Supplier.class)))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+    }
+
+    private void mockAuthService(Plan plan) {
+        when(restClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString(), (Object) any())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.header(eq(HttpHeaders.AUTHORIZATION), anyString())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.body(Plan.class)).thenReturn(plan);
+    }
+
+    @Test
+    void resolvePlan_SharedCacheHit_ShouldNotCallAuthService() {
+        when(valueOperations.get("user:plan:123")).thenReturn("PRO");
+        lenient().when(jwt.getClaimAsString("plan")).thenReturn("BASIC");
+
+        assertEquals(Plan.PRO, planService.resolvePlan("123", jwt));
+        verifyNoInteractions(restClient);
+    }
+
+    @Test
+    void resolvePlan_SharedCacheMiss_ShouldUseTokenClaim() {
+        when(valueOperations.get("user:plan:123")).thenReturn(null);
+        when(jwt.getClaimAsString("plan")).thenReturn("TEAM");
+
+        assertEquals(Plan.TEAM, planService.resolvePlan("123", jwt));
+        verifyNoInteractions(restClient);
+    }
+
+    @Test
+    void resolvePlan_NoLocalSource_ShouldFetchAndBackfillWithoutOverwriting() {
+        when(valueOperations.get("user:plan:123")).thenReturn(null);
+        when(jwt.getClaimAsString("plan")).thenReturn(null);
+        mockAuthService(Plan.PRO);
+
+        assertEquals(Plan.PRO, planService.resolvePlan("123", jwt));
+        verify(valueOperations).setIfAbsent("user:plan:123", "PRO", Duration.ofHours(1));
+    }
+
+    @Test
+    void resolvePlan_ShouldAnswerRepeatedLookupsLocally() {
+        when(valueOperations.get("user:plan:123")).thenReturn("PRO");
+
+        planService.resolvePlan("123", jwt);
+        planService.resolvePlan("123", jwt);
+
+        verify(valueOperations, times(1)).get("user:plan:123");
+    }
+
+    @Test
+    void resolvePlan_AllSourcesDown_ShouldDefaultToBasicWithoutCaching() {
+        when(valueOperations.get("user:plan:123")).thenThrow(new RedisConnectionFailureException("down"));
+        when(jwt.getClaimAsString("plan")).thenReturn(null);
+        when(restClient.get()).thenThrow(new ResourceAccessException("timeout"));
+
+        assertEquals(Plan.BASIC, planService.resolvePlan("123", jwt));
+        assertEquals(Plan.BASIC, planService.resolvePlan("123", jwt));
+        verify(restClient, times(2)).get();
+    }
+}
@@ -1,17 +1,23 @@
 package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
 
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.config.BanProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -29,15 +35,21 @@ class RedisBanServiceTest {
     @Mock
     private QueueService queueService;
 
-    @InjectMocks
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
     private RedisBanService redisBanService;
 
     @Captor
     private ArgumentCaptor<Duration> durationCaptor;
 
+    @Captor
+    private ArgumentCaptor<MessageListener> listenerCaptor;
+
     @BeforeEach
     void setUp() {
         lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        redisBanService = new RedisBanService(redisTemplate, queueService, banProperties(), listenerContainer);
     }
 
     @Test
@@ -141,4 +153,65 @@ class RedisBanServiceTest {
         // Assert
         assertFalse(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void isUserBanned_RepeatedChecks_ShouldHitRedisOnce() {
+        when(redisTemplate.hasKey("user:banned:user123")).thenReturn(false);
+
+        for (int i = 0; i < 10; i++) {
+            assertFalse(redisBanService.isUserBanned("user123"));
+        }
+
+        verify(redisTemplate, times(1)).hasKey("user:banned:user123");
+    }
+
+    @Test
+    void applyBan_ShouldInvalidateCacheAndBroadcast() {
+        when(redisTemplate.hasKey("user:banned:user123")).thenReturn(false, true);
+        when(valueOperations.increment(anyString())).thenReturn(3L);
+
+        assertFalse(redisBanService.isUserBanned("user123"));
+        redisBanService.incrementViolationAndCheckBan("user123", "test@example.com");
+
+        assertTrue(redisBanService.isUserBanned("user123"));
+        verify(redisTemplate).convertAndSend("user:ban:invalidate", "user123");
+    }
+
+    @Test
+    void invalidationMessage_ShouldDropCachedEntry() {
+        verify(listenerContainer).addMessageListener(listenerCaptor.capture(), any(ChannelTopic.class));
+        when(redisTemplate.hasKey("user:banned:user123")).thenReturn(false, true);
+
+        assertFalse(redisBanService.isUserBanned("user123"));
+        listenerCaptor.getValue().onMessage(new DefaultMessage(
+                "user:ban:invalidate".getBytes(StandardCharsets.UTF_8),
+                "user123".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertTrue(redisBanService.isUserBanned("user123"));
+    }
+
+    private static BanProperties banProperties() {
+        BanProperties properties = new BanProperties();
+        BanProperties.Redis redis = new BanProperties.Redis();
+        redis.setViolationKeyPrefix("user:violation_count:");
+        redis.setBanKeyPrefix("user:banned:");
+        redis.setLifetimeValue("LIFETIME");
+        properties.setRedis(redis);
+        properties.setRules(List.of(
+                rule(3, "24 hours", Duration.ofHours(24), false),
+                rule(10, "1 month", Duration.ofDays(30), false),
+                rule(20, "3 months", Duration.ofDays(90), false),
+                rule(25, "LIFETIME", null, true)));
+        return properties;
+    }
+
+    private static BanProperties.Rule rule(int count, String duration, Duration ttl, boolean lifetime) {
+        BanProperties.Rule rule = new BanProperties.Rule();
+        rule.setCount(count);
+        rule.setDuration(duration);
+        rule.setTtl(ttl);
+        rule.setLifetime(lifetime);
+        rule.setReason("File policy violation count reached " + count + ".");
+        return rule;
+    }
+}
@@ -0,0 +1,79 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
+
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Exception.InvalidLlmResponseException;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.config.LangChainConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StructuredOutputParserTest {
+
+    private StructuredOutputParser parser;
+
+    @BeforeEach
+    void setUp() {
+        parser = new StructuredOutputParser();
+        ReflectionTestUtils.setField(parser, "maxAttempts", 2);
+    }
+
+    @Test
+    void parse_FencedResponse_ShouldIgnoreFenceAndUnknownFields() {
+        String response = "```json\n{\"security_status\": \"safe\", \"rejection_reason\": null, "
+                + "\"confidence\": {\"score\": 0.9}, \"tags\": [\"invoice\", \" \"]}\n```";
+
+        Map<String, Object> verdict = parser.parse(response, LangChainConfig.SECURITY_SCHEMA);
+
+        assertEquals("safe", verdict.get("security_status"));
+        assertNull(verdict.get("rejection_reason"));
+        assertEquals(List.of("invoice"), verdict.get("tags"));
+        assertFalse(verdict.containsKey("confidence"));
+    }
+
+    @Test
+    void parse_ValueOutsideEnum_ShouldBeRejected() {
+        assertThrows(InvalidLlmResponseException.class,
+                () -> parser.parse("{\"security_status\": \"maybe\"}", LangChainConfig.SECURITY_SCHEMA));
+    }
+
+    @Test
+    void parse_MissingRequiredFieldOrTruncatedJson_ShouldBeRejected() {
+        assertThrows(InvalidLlmResponseException.class,
+                () -> parser.parse("{\"rejection_reason\": null}", LangChainConfig.SECURITY_SCHEMA));
+        assertThrows(InvalidLlmResponseException.class,
+                () -> parser.parse("{\"security_status\": \"safe\", \"tags\": [\"a\"", LangChainConfig.SECURITY_SCHEMA));
+        assertThrows(InvalidLlmResponseException.class,
+                () -> parser.parse("I cannot help with that.", LangChainConfig.SECURITY_SCHEMA));
+    }
+
+    @Test
+    void generate_ShouldRetryOnlyUntilAValidAnswer() {
+        Iterator<String> answers = List.of("not json", "{\"security_status\": \"unsafe\"}").iterator();
+        AtomicInteger calls = new AtomicInteger();
+
+        Map<String, Object> verdict = parser.generate(() -> {
+            calls.incrementAndGet();
+            return answers.next();
+        }, LangChainConfig.SECURITY_SCHEMA);
+
+        assertEquals("unsafe", verdict.get("security_status"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void generate_ShouldGiveUpAfterMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(InvalidLlmResponseException.class, () -> parser.generate(() -> {
+            calls.incrementAndGet();
+            return "{}";
+        }, LangChainConfig.SECURITY_SCHEMA));
+        assertEquals(2, calls.get());
+    }
+}
@@ -0,0 +1,126 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
+
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Exception.BusinessException;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Model.Plan;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.config.UploadSchedulerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadAdmissionSchedulerTest {
+
+    private UploadSchedulerProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private UploadAdmissionScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UploadSchedulerProperties();
+        properties.setMaxConcurrent(1);
+        properties.setMaxQueuedPerUser(100);
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new UploadAdmissionScheduler(properties, meterRegistry);
+    }
+
+    @Test
+    void acquire_ShouldShareSlotsByPlanWeight() {
+        List<String> order = new ArrayList<>();
+        List<UploadAdmissionScheduler.Permit> held = new ArrayList<>();
+
+        // "blocker" holds the only slot so both users queue up before anything is granted.
+        scheduler.acquire("blocker", Plan.BASIC).subscribe(held::add);
+        for (int i = 0; i < 10; i++) {
+            scheduler.acquire("team-user", Plan.TEAM).subscribe(p -> { order.add("team"); held.add(p); });
+            scheduler.acquire("basic-user", Plan.BASIC).subscribe(p -> { order.add("basic"); held.add(p); });
+        }
+
+        for (int i = 0; i < 10; i++) {
+            held.remove(0).release();
+        }
+
+        long team = order.stream().filter("team"::equals).count();
+        assertEquals(10, order.size());
+        assertEquals(8, team, "TEAM (weight 4) should get four slots for every BASIC (weight 1) slot: " + order);
+    }
+
+    @Test
+    void acquire_ShouldRespectPerUserInFlightLimit() {
+        properties.setMaxConcurrent(10);
+        List<UploadAdmissionScheduler.Permit> granted = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            scheduler.acquire("basic-user", Plan.BASIC).subscribe(granted::add);
+        }
+
+        assertEquals(properties.perUserLimit(Plan.BASIC), granted.size());
+        assertEquals(3.0, meterRegistry.get("upload.admission.queued").tag("plan", "BASIC").gauge().value());
+
+        granted.get(0).release();
+        assertEquals(properties.perUserLimit(Plan.BASIC) + 1, granted.size());
+    }
+
+    @Test
+    void acquire_FullQueue_ShouldRejectWithTooManyRequests() {
+        properties.setMaxQueuedPerUser(1);
+        scheduler.acquire("blocker", Plan.BASIC).subscribe();
+        scheduler.acquire("user", Plan.PRO).subscribe();
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        scheduler.acquire("user", Plan.PRO).subscribe(p -> fail("should not be admitted"), error::set);
+
+        BusinessException rejected = assertInstanceOf(BusinessException.class, error.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getStatus());
+        assertEquals(1.0, meterRegistry.get("upload.admission.rejected").tag("plan", "PRO").counter().count());
+    }
+
+    @Test
+    void cancelWhileQueued_ShouldGiveUpThePlace() {
+        List<UploadAdmissionScheduler.Permit> held = new ArrayList<>();
+        scheduler.acquire("blocker", Plan.BASIC).subscribe(held::add);
+
+        Disposable waiting = scheduler.acquire("user", Plan.BASIC).subscribe(p -> fail("cancelled upload was admitted"));
+        List<UploadAdmissionScheduler.Permit> next = new ArrayList<>();
+        scheduler.acquire("other", Plan.BASIC).subscribe(next::add);
+
+        waiting.dispose();
+        held.get(0).release();
+
+        assertEquals(1, next.size());
+    }
+
+    @Test
+    void acquire_WaitingTooLong_ShouldRejectWithServiceUnavailable() throws InterruptedException {
+        properties.setMaxWait(Duration.ofMillis(50));
+        List<UploadAdmissionScheduler.Permit> held = new ArrayList<>();
+        scheduler.acquire("blocker", Plan.BASIC).subscribe(held::add);
+
+        CountDownLatch failed = new CountDownLatch(1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        scheduler.acquire("user", Plan.PRO).subscribe(p -> fail("should not be admitted"), ex -> {
+            error.set(ex);
+            failed.countDown();
+        });
+
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        BusinessException rejected = assertInstanceOf(BusinessException.class, error.get());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatus());
+        assertEquals(1.0, meterRegistry.get("upload.admission.expired").tag("plan", "PRO").counter().count());
+        assertEquals(0.0, meterRegistry.get("upload.admission.queued").tag("plan", "PRO").gauge().value());
+
+        // The blocker was admitted straight away, so its timer must not fire.
+        Thread.sleep(100);
+        assertEquals(1, held.size());
+        assertEquals(1.0, meterRegistry.get("upload.admission.in_flight").tag("plan", "BASIC").gauge().value());
+    }
+}
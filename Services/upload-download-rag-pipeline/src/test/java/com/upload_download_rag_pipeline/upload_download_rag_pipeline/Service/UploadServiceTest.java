@@ -1,31 +1,34 @@
 package com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service;
 
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.ExtractedContent;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.ExtractionHandoff;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.MetadataAnalysis;
 import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.S3UploadResult;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Dto.StorageUsageEvent;
 import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Exception.BusinessException;
 import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Exception.StorageQuotaExceededException;
 import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Model.Plan;
 import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Model.ProcessedDocument;
-import io.github.resilience4j.circuitbreaker.CircuitBreaker;
-import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.config.UploadStageMetrics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
-import org.springframework.http.HttpHeaders;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.web.client.RestClient;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -35,17 +38,11 @@ class UploadServiceTest {
     @Mock private SecurityService securityService;
     @Mock private S3Service s3Service;
     @Mock private QueueService queueService;
-    @Mock private RestClient restClient;
     @Mock private RedisBanService redisBanService;
     @Mock private StringRedisTemplate stringRedisTemplate;
     @Mock private ValueOperations<String, String> valueOperations;
-    @Mock private CircuitBreakerRegistry circuitBreakerRegistry;
-    @Mock private CircuitBreaker circuitBreaker;
-
-    // Mocking the RestClient chain
-    @Mock private RestClient.RequestHeadersUriSpec requestHeadersUriSpec;
-    @Mock private RestClient.RequestHeadersSpec requestHeadersSpec;
-    @Mock private RestClient.ResponseSpec responseSpec;
+    @Mock private PlanService planService;
+    @Mock private UploadStageMetrics stageMetrics;
 
     @InjectMocks
     private UploadService uploadService;
@@ -59,20 +56,10 @@ class UploadServiceTest {
         mockJwt = mock(Jwt.class);
         lenient().when(mockJwt.getSubject()).thenReturn(userEmail);
         lenient().when(mockJwt.getTokenValue()).thenReturn("dummy-token");
-
-        ReflectionTestUtils.setField(uploadService, "authServiceUrl", "http://auth-service");
-
-        lenient().when(circuitBreakerRegistry.circuitBreaker(anyString())).thenReturn(circuitBreaker);
-        lenient().when(circuitBreaker.decorateSupplier(any(Supplier.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        lenient().when(circuitBreaker.executeSupplier(any(Supplier.class))).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
     }
 
     private void mockPlanFetch(Plan plan) {
-        lenient().when(restClient.get()).thenReturn(requestHeadersUriSpec);
-        lenient().when(requestHeadersUriSpec.uri(anyString(), (Object) any())).thenReturn(requestHeadersSpec);
-        lenient().when(requestHeadersSpec.header(eq(HttpHeaders.AUTHORIZATION), anyString())).thenReturn(requestHeadersSpec);
-        lenient().when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        lenient().when(responseSpec.body(Plan.class)).thenReturn(plan);
+        lenient().when(planService.resolvePlan(eq(userId), any())).thenReturn(plan);
     }
 
     @Test
@@ -89,7 +76,7 @@ class UploadServiceTest {
         mockPlanFetch(Plan.DEFAULT); // 1GB limit
         when(s3Service.getUserFolderSize(userId)).thenReturn(100L);
 
-        when(s3Service.uploadFile(anyString(), any())).thenReturn(new S3UploadResult("http://s3.url/file", 100L));
+        when(s3Service.uploadFile(anyString(), any())).thenReturn(new S3UploadResult("http://s3.url/file", 100L, 0L, "etag@1"));
         when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
         when(valueOperations.get(anyString())).thenReturn("generated-file-id");
 
@@ -102,6 +89,47 @@ class UploadServiceTest {
         verify(s3Service).uploadFile(contains(userId + "/" + fileName), any());
     }
 
+    @Test
+    void processFile_Reupload_ShouldChargeOnlyTheSizeDifference() throws Exception {
+        String fileName = "notes.txt";
+
+        when(redisBanService.isUserBanned(userId)).thenReturn(false);
+        when(securityService.checkFileSecurity(any(), eq(fileName), anyString()))
+                .thenReturn(Map.of("security_status", "safe"));
+        mockPlanFetch(Plan.DEFAULT);
+        when(s3Service.getUserFolderSize(userId)).thenReturn(0L);
+        when(s3Service.uploadFile(anyString(), any())).thenReturn(new S3UploadResult("url", 150L, 100L, "etag@2"));
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenReturn("id");
+
+        uploadService.processFile(new ByteArrayInputStream("meeting notes".getBytes()), fileName, userId, mockJwt);
+        uploadService.processFile(new ByteArrayInputStream("meeting notes".getBytes()), fileName, userId, mockJwt);
+
+        ArgumentCaptor<StorageUsageEvent> events = ArgumentCaptor.forClass(StorageUsageEvent.class);
+        verify(queueService, times(2)).publishStorageUsage(events.capture());
+        assertEquals(50L, events.getValue().deltaBytes());
+        // The same stored version always maps to the same event id, so the consumer drops a redelivery.
+        assertEquals(events.getAllValues().get(0).eventId(), events.getAllValues().get(1).eventId());
+    }
+
+    @Test
+    void processFile_ReuploadOfSameSize_ShouldNotPublishUsage() throws Exception {
+        String fileName = "notes.txt";
+
+        when(redisBanService.isUserBanned(userId)).thenReturn(false);
+        when(securityService.checkFileSecurity(any(), eq(fileName), anyString()))
+                .thenReturn(Map.of("security_status", "safe"));
+        mockPlanFetch(Plan.DEFAULT);
+        when(s3Service.getUserFolderSize(userId)).thenReturn(0L);
+        when(s3Service.uploadFile(anyString(), any())).thenReturn(new S3UploadResult("url", 100L, 100L, "etag@2"));
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenReturn("id");
+
+        uploadService.processFile(new ByteArrayInputStream("meeting notes".getBytes()), fileName, userId, mockJwt);
+
+        verify(queueService, never()).publishStorageUsage(any());
+    }
+
 
     @Test
     void processFile_ShouldReject_WhenQuotaExceeded() throws Exception {
@@ -186,7 +214,7 @@ class UploadServiceTest {
 
         mockPlanFetch(Plan.DEFAULT);
         when(s3Service.getUserFolderSize(userId)).thenReturn(0L);
-        when(s3Service.uploadFile(anyString(), any())).thenReturn(new S3UploadResult("url", 100L));
+        when(s3Service.uploadFile(anyString(), any())).thenReturn(new S3UploadResult("url", 100L, 0L, "etag@1"));
         when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
         when(valueOperations.get(anyString())).thenReturn("id");
 
@@ -199,4 +227,97 @@ class UploadServiceTest {
 
         verify(securityService).checkFileSecurity(any(), eq(fileName), eq("video"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void processFile_ShouldHandOffSmallExtractionInline() throws Exception {
+        ReflectionTestUtils.setField(uploadService, "inlineExtractionMaxBytes", 1024);
+        String fileName = "notes.txt";
+
+        when(redisBanService.isUserBanned(userId)).thenReturn(false);
+        when(securityService.checkFileSecurity(any(), eq(fileName), anyString()))
+                .thenReturn(Map.of("security_status", "safe",
+                        SecurityService.EXTRACTED_CONTENT, new ExtractedContent("meeting notes", false)));
+        mockPlanFetch(Plan.DEFAULT);
+        when(s3Service.getUserFolderSize(userId)).thenReturn(0L);
+        when(s3Service.uploadFile(anyString(), any())).thenReturn(new S3UploadResult("url", 100L, 0L, "etag@1"));
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenReturn("id");
+
+        uploadService.processFile(new ByteArrayInputStream("meeting notes".getBytes()), fileName, userId, mockJwt);
+
+        ArgumentCaptor<ExtractionHandoff> handoff = ArgumentCaptor.forClass(ExtractionHandoff.class);
+        verify(queueService).publishMetadataRequest(eq(fileName), anyString(), anyString(), eq(userId), anyLong(), anyString(), handoff.capture(), isNull());
+        assertEquals("meeting notes", handoff.getValue().text());
+        assertEquals("text/plain", handoff.getValue().mimeType());
+        assertNull(handoff.getValue().sidecarKey());
+        verify(s3Service, never()).uploadCompressed(anyString(), any(), anyString());
+    }
+
+    @Test
+    void processFile_ShouldStoreLargeExtractionAsSidecar() throws Exception {
+        ReflectionTestUtils.setField(uploadService, "inlineExtractionMaxBytes", 4);
+        ReflectionTestUtils.setField(uploadService, "sidecarPrefix", "_extracted/");
+        String fileName = "notes.txt";
+
+        when(redisBanService.isUserBanned(userId)).thenReturn(false);
+        when(securityService.checkFileSecurity(any(), eq(fileName), anyString()))
+                .thenReturn(Map.of("security_status", "safe",
+                        SecurityService.EXTRACTED_CONTENT, new ExtractedContent("meeting notes", true)));
+        mockPlanFetch(Plan.DEFAULT);
+        when(s3Service.getUserFolderSize(userId)).thenReturn(0L);
+        when(s3Service.uploadFile(anyString(), any())).thenReturn(new S3UploadResult("url", 100L, 0L, "etag@1"));
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenReturn("id");
+
+        uploadService.processFile(new ByteArrayInputStream("meeting notes".getBytes()), fileName, userId, mockJwt);
+
+        ArgumentCaptor<ExtractionHandoff> handoff = ArgumentCaptor.forClass(ExtractionHandoff.class);
+        verify(queueService).publishMetadataRequest(eq(fileName), anyString(), anyString(), eq(userId), anyLong(), anyString(), handoff.capture(), isNull());
+        assertNull(handoff.getValue().text());
+        assertTrue(handoff.getValue().truncated());
+        assertEquals("_extracted/" + userId + "/" + fileName + ".txt.gz", handoff.getValue().sidecarKey());
+        verify(s3Service).uploadCompressed(eq(handoff.getValue().sidecarKey()), any(), anyString());
+        verify(s3Service, never()).deleteCompressed(anyString());
+    }
+
+    @Test
+    void processFile_ShouldDeleteSidecar_WhenPublishFails() throws Exception {
+        ReflectionTestUtils.setField(uploadService, "inlineExtractionMaxBytes", 4);
+        ReflectionTestUtils.setField(uploadService, "sidecarPrefix", "_extracted/");
+        String fileName = "notes.txt";
+
+        when(redisBanService.isUserBanned(userId)).thenReturn(false);
+        when(securityService.checkFileSecurity(any(), eq(fileName), anyString()))
+                .thenReturn(Map.of("security_status", "safe",
+                        SecurityService.EXTRACTED_CONTENT, new ExtractedContent("meeting notes", true)));
+        mockPlanFetch(Plan.DEFAULT);
+        when(s3Service.getUserFolderSize(userId)).thenReturn(0L);
+        when(s3Service.uploadFile(anyString(), any())).thenReturn(new S3UploadResult("url", 100L, 0L, "etag@1"));
+        doThrow(new IllegalStateException("broker unavailable")).when(queueService)
+                .publishMetadataRequest(anyString(), anyString(), anyString(), anyString(), anyLong(), anyString(), any(), any());
+
+        assertThrows(RuntimeException.class, () ->
+                uploadService.processFile(new ByteArrayInputStream("meeting notes".getBytes()), fileName, userId, mockJwt));
+
+        verify(s3Service).deleteCompressed("_extracted/" + userId + "/" + fileName + ".txt.gz");
+    }
+
+    @Test
+    void processFile_ShouldForwardCombinedAnalysis() throws Exception {
+        String fileName = "notes.txt";
+        MetadataAnalysis analysis = new MetadataAnalysis(List.of("meeting"), List.of("Work"), "Meeting notes.");
+
+        when(redisBanService.isUserBanned(userId)).thenReturn(false);
+        when(securityService.checkFileSecurity(any(), eq(fileName), anyString()))
+                .thenReturn(Map.of("security_status", "safe", SecurityService.METADATA_ANALYSIS, analysis));
+        mockPlanFetch(Plan.DEFAULT);
+        when(s3Service.getUserFolderSize(userId)).thenReturn(0L);
+        when(s3Service.uploadFile(anyString(), any())).thenReturn(new S3UploadResult("url", 100L, 0L, "etag@1"));
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenReturn("id");
+
+        uploadService.processFile(new ByteArrayInputStream("meeting notes".getBytes()), fileName, userId, mockJwt);
+
+        verify(queueService).publishMetadataRequest(eq(fileName), anyString(), anyString(), eq(userId), anyLong(), anyString(), any(), eq(analysis));
+    }
+}
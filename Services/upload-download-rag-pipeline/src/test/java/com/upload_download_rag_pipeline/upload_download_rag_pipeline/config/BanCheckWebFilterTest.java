@@ -0,0 +1,85 @@
+package com.upload_download_rag_pipeline.upload_download_rag_pipeline.config;
+
+import com.upload_download_rag_pipeline.upload_download_rag_pipeline.Service.RedisBanService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BanCheckWebFilterTest {
+
+    @Mock
+    private RedisBanService redisBanService;
+
+    private BanCheckWebFilter filter;
+    private final AtomicBoolean chainCalled = new AtomicBoolean();
+    private final WebFilterChain chain = exchange -> Mono.fromRunnable(() -> chainCalled.set(true));
+
+    @BeforeEach
+    void setUp() {
+        filter = new BanCheckWebFilter(redisBanService, new BanProperties());
+    }
+
+    @Test
+    void filter_BannedUser_ShouldAnswerWithBannedSecurityStatus() {
+        when(redisBanService.isUserBanned("user-1")).thenReturn(true);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/genai/process"));
+
+        filter.filter(exchange, chain)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(token("user-1")))
+                .block(Duration.ofSeconds(5));
+
+        assertFalse(chainCalled.get());
+        assertEquals(HttpStatus.BAD_REQUEST, exchange.getResponse().getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, exchange.getResponse().getHeaders().getContentType());
+        assertTrue(exchange.getResponse().getBodyAsString().block(Duration.ofSeconds(5))
+                .contains("\"securityStatus\":\"banned\""));
+    }
+
+    @Test
+    void filter_UserNotBanned_ShouldContinueTheChain() {
+        when(redisBanService.isUserBanned("user-1")).thenReturn(false);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/genai/process"));
+
+        filter.filter(exchange, chain)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(token("user-1")))
+                .block(Duration.ofSeconds(5));
+
+        assertTrue(chainCalled.get());
+        assertNull(exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_UnguardedPath_ShouldNotLookUpTheBan() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/actuator/health"));
+
+        filter.filter(exchange, chain).block(Duration.ofSeconds(5));
+
+        assertTrue(chainCalled.get());
+        verifyNoInteractions(redisBanService);
+    }
+
+    private static JwtAuthenticationToken token(String userId) {
+        return new JwtAuthenticationToken(Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .claim("userId", userId)
+                .build());
+    }
+}
@@ -170,6 +170,26 @@ resource "aws_key_pair" "deployer_key" {
 #   role = aws_iam_role.s3_access_role.name
 # }
 
+# Extraction sidecars under _extracted/ are deleted by tags-generation once read, or by the
+# upload service when the upload fails. This expires any that both missed (crashed pods, lost
+# Kafka messages). Note that it manages the bucket's whole lifecycle configuration.
+resource "aws_s3_bucket_lifecycle_configuration" "rag_bucket_lifecycle" {
+  bucket = var.rag_bucket_name
+
+  rule {
+    id     = "expire-extraction-sidecars"
+    status = "Enabled"
+
+    filter {
+      prefix = "_extracted/"
+    }
+
+    expiration {
+      days = 1
+    }
+  }
+}
+
 resource "aws_instance" "docker_host8" {
   ami            = "ami-020cba7c55df1f615"
   instance_type = "t3.medium" # Adjust as needed
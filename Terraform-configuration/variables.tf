@@ -24,4 +24,10 @@ variable "keycloak_image" {
   type        = string
   default     = "quay.io/keycloak/keycloak:26.0.5"
   description = "Keycloak image tag"
-}
\ No newline at end of file
+}
+
+variable "rag_bucket_name" {
+  type        = string
+  default     = "your-rag-pipeline-bucket"
+  description = "S3 bucket the upload, tags-generation and search services store files in"
+}
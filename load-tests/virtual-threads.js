@@ -0,0 +1,44 @@
+// Compares a servlet service on platform and virtual threads under 1k+ concurrent
+// blocking requests. Run it once per mode against the same deployment:
+//
+//   SPRING_THREADS_VIRTUAL_ENABLED=false  (Tomcat's 200 platform threads)
+//   SPRING_THREADS_VIRTUAL_ENABLED=true
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e TOKEN=<jwt> load-tests/virtual-threads.js
+//
+// and compare http_reqs/s and the p95/p99 of http_req_duration. Set
+// RATELIMIT_ENABLED=false on services that have the per-user rate limiter, or
+// every request after the first minute is a 429. Watch jvm_threads_virtual_pinned
+// on /actuator/prometheus during the virtual run.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const PATH = __ENV.PATH_UNDER_TEST || '/api/auth/getStoragePlanAndConsumption';
+const PEAK = parseInt(__ENV.PEAK_VUS || '1200', 10);
+
+export const options = {
+    scenarios: {
+        blocking: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: PEAK },
+                { duration: '2m', target: PEAK },
+                { duration: '15s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const res = http.get(`${BASE_URL}${PATH}`, {
+        headers: { Authorization: `Bearer ${__ENV.TOKEN}` },
+    });
+    check(res, { 'status is 200': (r) => r.status === 200 });
+}